@@ -0,0 +1,220 @@
+import scrabbb.bench.Workloads;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Fixed corpus of mid-game positions, and the operations benchmarked on them. Everything is derived from fixed seeds,
+ * so every run (and every version of the engine that plays the same moves) measures the same work.
+ *
+ * Each position is reached by playing PLIES greedy moves (the highest-scoring play, or exchanging everything if
+ * there is none) from a Board seeded with its position number. The candidate plays probed in each position are a
+ * sample of its legal plays, followed by the same plays shifted one square, most of which are illegal.
+ */
+public class ScrabbleWorkloads implements Workloads {
+
+    /** Number of positions in the corpus. */
+    private static final int POSITIONS = 32;
+
+    /** Number of moves played to reach each position. */
+    private static final int PLIES = 10;
+
+    /** Maximum number of legal plays probed in each position. */
+    private static final int PROBES_PER_POSITION = 16;
+
+    /** Number of rollouts in each simulate. */
+    private static final int ROLLOUTS = 64;
+
+    /** Number of strings looked up in the dictionary; half are words. */
+    private static final int WORDS = 1024;
+
+    private final ArrayList<Board> positions = new ArrayList<>();
+
+    /** An Incrementalist for each position, with its GateKeeper already set. */
+    private final ArrayList<Incrementalist> players = new ArrayList<>();
+
+    /** The GateKeeper for the player to move in each position. */
+    private final ArrayList<GateKeeper> gateKeepers = new ArrayList<>();
+
+    // Candidate plays, legal ones first: the board, the hand, and the play itself
+
+    private Board[] probeBoards;
+
+    private TileRack[] probeHands;
+
+    private String[] probeWords;
+
+    private char[][] probeLetters;
+
+    private Location[] probeLocations;
+
+    private Location[] probeDirections;
+
+    private int legalProbes;
+
+    private String[] words;
+
+    private final ScrabbleTournament tournament = new ScrabbleTournament();
+
+    public ScrabbleWorkloads() throws IllegalMoveException {
+        MoveGenerator generator = new MoveGenerator(Board.getLexicon());
+        ArrayList<ScoredPlay> legal = new ArrayList<>();
+        ArrayList<Board> legalBoards = new ArrayList<>();
+        ArrayList<ScoredPlay> shifted = new ArrayList<>();
+        ArrayList<Board> shiftedBoards = new ArrayList<>();
+        for (int seed = 1; positions.size() < POSITIONS; seed++) {
+            Board board = new Board(new Random(seed));
+            for (int ply = 0; ply < PLIES && !board.gameIsOver(); ply++) {
+                TileRack hand = board.getHand(board.getCurrentPlayer());
+                ScoredPlay best = null;
+                for (ScoredPlay play : generator.generate(board, hand)) {
+                    if (best == null || play.getScore() > best.getScore()) {
+                        best = play;
+                    }
+                }
+                if (best == null) {
+                    board.exchange(hand, new boolean[] {true, true, true, true, true, true, true});
+                } else {
+                    board.play(best.getWord(), best.getLocation(), best.getDirection(), hand);
+                }
+            }
+            if (board.gameIsOver()) {
+                continue;
+            }
+            positions.add(board);
+            GateKeeper gateKeeper = new GateKeeper(board, board.getCurrentPlayer());
+            gateKeepers.add(gateKeeper);
+            Incrementalist player = new Incrementalist();
+            player.setGateKeeper(gateKeeper);
+            players.add(player);
+            ArrayList<ScoredPlay> plays = generator.generate(board, board.getHand(board.getCurrentPlayer()));
+            int step = Math.max(1, plays.size() / PROBES_PER_POSITION);
+            for (int i = 0; i < plays.size() && i / step < PROBES_PER_POSITION; i += step) {
+                ScoredPlay play = plays.get(i);
+                legal.add(play);
+                legalBoards.add(board);
+                Location location = play.getLocation().neighbor(play.getDirection().opposite());
+                shifted.add(new ScoredPlay(play.getWord(), location, play.getDirection(), -1));
+                shiftedBoards.add(board);
+            }
+        }
+        legalProbes = legal.size();
+        legal.addAll(shifted);
+        legalBoards.addAll(shiftedBoards);
+        int n = legal.size();
+        probeBoards = legalBoards.toArray(new Board[0]);
+        probeHands = new TileRack[n];
+        probeWords = new String[n];
+        probeLetters = new char[n][];
+        probeLocations = new Location[n];
+        probeDirections = new Location[n];
+        for (int i = 0; i < n; i++) {
+            ScoredPlay play = legal.get(i);
+            probeHands[i] = probeBoards[i].getHand(probeBoards[i].getCurrentPlayer());
+            probeWords[i] = play.getWord();
+            probeLetters[i] = play.getWord().toCharArray();
+            probeLocations[i] = play.getLocation();
+            probeDirections[i] = play.getDirection();
+        }
+        // Dictionary lookups: words from the corpus plays, each followed by a one-letter misspelling
+        Random random = new Random(0);
+        words = new String[WORDS];
+        for (int i = 0; i < WORDS; i += 2) {
+            String word = boardWord(i / 2 % legalProbes);
+            char[] misspelled = word.toCharArray();
+            misspelled[random.nextInt(misspelled.length)] = (char) ('a' + random.nextInt(26));
+            words[i] = word;
+            words[i + 1] = new String(misspelled);
+        }
+    }
+
+    /** Returns the main word formed by legal probe i, with the tiles already on the board filled in. */
+    private String boardWord(int probe) {
+        StringBuilder result = new StringBuilder();
+        Location location = probeLocations[probe];
+        for (char c : probeLetters[probe]) {
+            result.append(Character.toLowerCase(c == ' ' ? probeBoards[probe].getSquare(location) : c));
+            location = location.neighbor(probeDirections[probe]);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public int probeCount() {
+        return probeWords.length;
+    }
+
+    @Override
+    public int legalProbeCount() {
+        return legalProbes;
+    }
+
+    @Override
+    public int verifyLegality(int probe) {
+        try {
+            probeBoards[probe].verifyLegality(probeWords[probe], probeLocations[probe], probeDirections[probe],
+                    probeHands[probe]);
+            return 1;
+        } catch (IllegalMoveException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public int tryScore(int probe) {
+        Location location = probeLocations[probe];
+        return probeBoards[probe].tryScore(location.getRow(), location.getColumn(),
+                Board.directionIndex(probeDirections[probe]), probeLetters[probe], probeLetters[probe].length,
+                probeHands[probe]);
+    }
+
+    @Override
+    public int score(int probe) {
+        return probeBoards[probe].score(probeWords[probe], probeLocations[probe], probeDirections[probe]);
+    }
+
+    @Override
+    public int wordCount() {
+        return words.length;
+    }
+
+    @Override
+    public boolean lookUp(int word) {
+        return Board.getLexicon().contains(words[word]);
+    }
+
+    @Override
+    public int positionCount() {
+        return positions.size();
+    }
+
+    @Override
+    public Object chooseMove(int position) {
+        return players.get(position).chooseMove();
+    }
+
+    @Override
+    public int simulate(int position, ForkJoinPool pool) {
+        Simulator simulator = new Simulator(10, 2, ROLLOUTS, SearchBudget.NO_TIME_LIMIT, pool, new Random(position));
+        simulator.setGateKeeper(gateKeepers.get(position));
+        simulator.chooseMove(SearchBudget.unlimited());
+        return simulator.getRolloutsCompleted();
+    }
+
+    @Override
+    public Object newBoard(long seed) {
+        return new Board(new Random(seed));
+    }
+
+    @Override
+    public double[] playGame(long seed) {
+        try {
+            return tournament.playGame(new Incrementalist(), new Incrementalist(), new Random(seed),
+                    new StringBuilder());
+        } catch (IllegalMoveException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package scrabbb.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks, accepting the usual JMH command-line options, with the GC profiler (-prof gc) always on so
+ * that every report includes allocation rates per operation.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(ScrabbleBenchmarks.class.getSimpleName());
+        }
+        if (commandLine.getProfilers().stream().noneMatch(p -> p.getKlass().equals(GCProfiler.class.getName()))) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+
+}
@@ -0,0 +1,125 @@
+package scrabbb.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the engine's hot paths over the fixed corpus in ScrabbleWorkloads. Each invocation handles the next
+ * item of the corpus in turn, so every measurement averages over the same mix of positions and plays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScrabbleBenchmarks {
+
+    /** Number of distinct seeds used by the newBoard and playGame benchmarks. */
+    private static final int SEEDS = 64;
+
+    private Workloads workloads;
+
+    private int probe;
+
+    private int legalProbe;
+
+    private int word;
+
+    private int position;
+
+    private long seed;
+
+    /** Pool for Simulator's rollouts, run with each number of threads to show how throughput scales. */
+    @State(Scope.Benchmark)
+    public static class RolloutPool {
+
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        public ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdownNow();
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        workloads = (Workloads) Class.forName("ScrabbleWorkloads").getConstructor().newInstance();
+    }
+
+    @Benchmark
+    public int verifyLegality() {
+        probe = probe + 1 == workloads.probeCount() ? 0 : probe + 1;
+        return workloads.verifyLegality(probe);
+    }
+
+    @Benchmark
+    public int tryScore() {
+        probe = probe + 1 == workloads.probeCount() ? 0 : probe + 1;
+        return workloads.tryScore(probe);
+    }
+
+    @Benchmark
+    public int score() {
+        legalProbe = legalProbe + 1 == workloads.legalProbeCount() ? 0 : legalProbe + 1;
+        return workloads.score(legalProbe);
+    }
+
+    @Benchmark
+    public boolean dictionaryLookup() {
+        word = word + 1 == workloads.wordCount() ? 0 : word + 1;
+        return workloads.lookUp(word);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object incrementalistChooseMove() {
+        position = position + 1 == workloads.positionCount() ? 0 : position + 1;
+        return workloads.chooseMove(position);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int simulatorChooseMove(RolloutPool rollouts) {
+        position = position + 1 == workloads.positionCount() ? 0 : position + 1;
+        return workloads.simulate(position, rollouts.pool);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object newBoard() {
+        seed = (seed + 1) % SEEDS;
+        return workloads.newBoard(seed);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double[] playGame() {
+        seed = (seed + 1) % SEEDS;
+        return workloads.playGame(seed);
+    }
+
+}
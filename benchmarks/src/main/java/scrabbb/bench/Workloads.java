@@ -0,0 +1,51 @@
+package scrabbb.bench;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The operations measured by ScrabbleBenchmarks, over a fixed corpus of mid-game positions. Implemented by
+ * ScrabbleWorkloads, which lives in the default package with the engine classes it exercises: JMH will not generate
+ * code for benchmarks in the default package, and classes in named packages cannot refer to it directly.
+ */
+public interface Workloads {
+
+    /** Number of candidate plays (legal or not) in the corpus. */
+    int probeCount();
+
+    /** Number of legal candidate plays in the corpus; these are probes 0 through legalProbeCount() - 1. */
+    int legalProbeCount();
+
+    /** Runs Board.verifyLegality on probe, returning 1 if it is legal and 0 if an IllegalMoveException was thrown. */
+    int verifyLegality(int probe);
+
+    /** Runs Board.tryScore on probe. */
+    int tryScore(int probe);
+
+    /** Runs Board.score on probe, which must be legal. */
+    int score(int probe);
+
+    /** Number of strings (words and non-words) to look up. */
+    int wordCount();
+
+    /** Looks up the string with the given index in the dictionary. */
+    boolean lookUp(int word);
+
+    /** Number of positions in the corpus. */
+    int positionCount();
+
+    /** Asks an Incrementalist to choose a move in position. */
+    Object chooseMove(int position);
+
+    /**
+     * Asks a Simulator to choose a move in position, with a fixed number of rollouts run on pool, and returns the
+     * number of rollouts completed.
+     */
+    int simulate(int position, ForkJoinPool pool);
+
+    /** Creates a new Board, drawing tiles with a Random seeded with seed. */
+    Object newBoard(long seed);
+
+    /** Plays a full game between two Incrementalists, drawing tiles with a Random seeded with seed. */
+    double[] playGame(long seed);
+
+}
@@ -0,0 +1,46 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * AsyncScrabbleAI that wraps a synchronous ScrabbleAI, running each of its chooseMove calls as a task on an Executor.
+ * The calling thread is never blocked; the Executor's thread is blocked for the whole search.
+ */
+public class AsyncAdapter implements AsyncScrabbleAI {
+
+    /** The AI that chooses the moves. */
+    private final ScrabbleAI ai;
+
+    /** Runs ai's chooseMove calls. */
+    private final Executor executor;
+
+    /**
+     * @param ai The AI that chooses the moves.
+     * @param executor Runs ai's chooseMove calls.
+     */
+    public AsyncAdapter(ScrabbleAI ai, Executor executor) {
+        this.ai = ai;
+        this.executor = executor;
+    }
+
+    @Override
+    public void setGateKeeper(GateKeeper gateKeeper) {
+        ai.setGateKeeper(gateKeeper);
+    }
+
+    @Override
+    public CompletableFuture<ScrabbleMove> chooseMoveAsync() {
+        return CompletableFuture.supplyAsync(ai::chooseMove, executor);
+    }
+
+    /** Starts choosing a move. The budget's deadline includes any time the task waits for the executor. */
+    @Override
+    public CompletableFuture<ScrabbleMove> chooseMoveAsync(SearchBudget budget) {
+        return CompletableFuture.supplyAsync(() -> ai.chooseMove(budget), executor);
+    }
+
+    @Override
+    public String getName() {
+        return ai.getClass().getSimpleName();
+    }
+
+}
@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncAdapterTest {
+
+    @Test
+    public void choosesSameMoveAsWrappedAi() throws ExecutionException, InterruptedException {
+        Board board = new Board(new Random(5));
+        ScrabbleAI ai = new Incrementalist();
+        ai.setGateKeeper(new GateKeeper(board, 0));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncScrabbleAI async = AsyncScrabbleAI.of(new Incrementalist(), executor);
+            async.setGateKeeper(new GateKeeper(board, 0));
+            assertEquals("Incrementalist", async.getName());
+            assertEquals(ai.chooseMove().toString(), async.chooseMoveAsync().get().toString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentGamesMatchSequentialGames() throws ExecutionException, InterruptedException,
+            IllegalMoveException {
+        ScrabbleTournament tournament = new ScrabbleTournament();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            StringBuilder[] reports = new StringBuilder[3];
+            CompletableFuture<?>[] games = new CompletableFuture<?>[3];
+            for (int i = 0; i < games.length; i++) {
+                reports[i] = new StringBuilder();
+                games[i] = tournament.playGameAsync(AsyncScrabbleAI.of(new Incrementalist(), executor),
+                        AsyncScrabbleAI.of(new Incrementalist(), executor), new Random(i), reports[i], null, null);
+            }
+            CompletableFuture.allOf(games).get();
+            for (int i = 0; i < games.length; i++) {
+                StringBuilder expected = new StringBuilder();
+                double[] result = tournament.playGame(new Incrementalist(), new Incrementalist(), new Random(i),
+                        expected);
+                assertArrayEquals(result, (double[]) games[i].get());
+                assertEquals(expected.toString(), reports[i].toString());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
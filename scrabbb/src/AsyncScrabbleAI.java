@@ -0,0 +1,35 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Player that chooses moves for Scrabble without blocking the caller: chooseMoveAsync returns at once, and the move
+ * arrives through the returned future. A driver can then advance many games on a few threads, playing each move as it
+ * completes (see ScrabbleTournament.playGameAsync).
+ *
+ * Synchronous ScrabbleAIs can be used through of(ai, executor).
+ */
+public interface AsyncScrabbleAI {
+
+    /**
+     * Sets the GateKeeper for the next move. The Board behind it is not changed until the future returned by the
+     * next chooseMoveAsync has completed.
+     */
+    public void setGateKeeper(GateKeeper gateKeeper);
+
+    /** Starts choosing a move within the AI's own default limits, and returns a future for it. */
+    public CompletableFuture<ScrabbleMove> chooseMoveAsync();
+
+    /** Starts choosing a move, searching no further than budget allows, and returns a future for it. */
+    public CompletableFuture<ScrabbleMove> chooseMoveAsync(SearchBudget budget);
+
+    /** Returns the name of this AI, for reporting. */
+    public default String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /** Returns an AsyncScrabbleAI that runs ai's chooseMove on executor. */
+    public static AsyncScrabbleAI of(ScrabbleAI ai, Executor executor) {
+        return new AsyncAdapter(ai, executor);
+    }
+
+}
@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Scrabble board, maintaining bag, players' hands, and other game logic.
@@ -31,11 +32,101 @@ public class Board {
     /** Symbol for a regular square. */
     public static final char NO_PREMIUM = ' ';
 
-    /** Set of legal words. */
-    private static final HashSet<String> DICTIONARY = new HashSet<>();
+    /** Index for horizontal words in per-direction tables. */
+    public static final int ACROSS = 0;
 
-    /** Associates tiles with their values. */
-    public static final Map<Character, Integer> TILE_VALUES = new HashMap<>();
+    /** Index for vertical words in per-direction tables. */
+    public static final int DOWN = 1;
+
+    /** Result of checkLegality for a legal play. */
+    public static final int LEGAL = 0;
+
+    /** Result of checkLegality for a word shorter than two letters. */
+    public static final int TOO_SHORT = 1;
+
+    /** Result of checkLegality for a word that uses no tiles from the hand. */
+    public static final int NO_TILES_PLAYED = 2;
+
+    /** Result of checkLegality for a word needing tiles that are not in the hand. */
+    public static final int NOT_IN_HAND = 3;
+
+    /** Result of checkLegality for a word that overlaps tiles, leaves gaps, abuts tiles, or leaves the board. */
+    public static final int BAD_PLACEMENT = 4;
+
+    /** Result of checkLegality for a word not connected to the tiles on the board (or the center). */
+    public static final int NOT_CONNECTED = 5;
+
+    /** Result of checkLegality for a play forming a word not in the dictionary. */
+    public static final int INVALID_WORD = 6;
+
+    // Kinds of entry in the undo journal kept by makeMove. Each entry is three ints: kind, a, and b.
+
+    /** A tile was placed on square a. */
+    private static final int UNDO_TILE = 0;
+
+    /** crossChecks[ACROSS][a] (or, at UNDO_CROSS_CHECK + DOWN, crossChecks[DOWN][a]) was b. */
+    private static final int UNDO_CROSS_CHECK = 1;
+
+    /** crossScores[ACROSS][a] (or, at UNDO_CROSS_SCORE + DOWN, crossScores[DOWN][a]) was b. */
+    private static final int UNDO_CROSS_SCORE = 3;
+
+    /** Square a was (if b is 1) or was not (if b is 0) an anchor. */
+    private static final int UNDO_ANCHOR = 5;
+
+    /** Player a's score was b. */
+    private static final int UNDO_SCORE = 6;
+
+    /** The current player was b. */
+    private static final int UNDO_PLAYER = 7;
+
+    /** The number of passes was b. */
+    private static final int UNDO_PASSES = 8;
+
+    /** Player a's hand lost the tile (b & 0xFFFF) from position b >> 16. */
+    private static final int UNDO_RACK_REMOVE = 9;
+
+    /** Player a's hand gained a tile at its end. */
+    private static final int UNDO_RACK_ADD = 10;
+
+    /** The tile b was taken from position a in the bag. */
+    private static final int UNDO_BAG_TAKE = 11;
+
+    /** A tile was returned to the bag. */
+    private static final int UNDO_BAG_ADD = 12;
+
+    /** Explanations for the results of checkLegality, as used in IllegalMoveExceptions. */
+    private static final String[] ILLEGALITY_MESSAGES = {
+            "Legal.",
+            "Word must be at least two letters long.",
+            "Word must use at least one tile from hand.",
+            "Hand does not contain sufficient tiles to play word.",
+            "Board placement incorrect (gaps, overlapping tiles, edge of board).",
+            "Board placement incorrect (gaps, overlapping tiles, edge of board).",
+            "Invalid word created."};
+
+    /**
+     * Value of each tile, indexed by the tile itself: 'a' through 'z' have their letter values, while blanks ('_',
+     * or 'A' through 'Z' once played) are worth 0.
+     */
+    private static final int[] VALUES = new int[128];
+
+    /** Associates tiles with their values. Read-only; a view of the same values as getValue. */
+    public static final Map<Character, Integer> TILE_VALUES;
+
+    /** Zobrist keys for each tile ('a' through 'z', then 'A' through 'Z' for played blanks) on each square. */
+    private static final long[][] SQUARE_KEYS = new long[WIDTH * WIDTH][52];
+
+    /** Zobrist keys for each player holding at least n + 1 tiles of each kind, indexed [player][kind][n]. */
+    private static final long[][][] HAND_KEYS = new long[2][TileRack.KINDS][7];
+
+    /** Zobrist key for player 1 being the current player. */
+    private static final long PLAYER_KEY;
+
+    /** Zobrist keys for each number of passes (0 through 2). */
+    private static final long[] PASS_KEYS = new long[3];
+
+    /** Bits 0 through WIDTH - 1, one for each square in a row or column. */
+    private static final int FULL_LINE = (1 << WIDTH) - 1;
 
     /**
      * Initial layout of bonus squares.
@@ -57,48 +148,127 @@ public class Board {
             " +   =   =   + ",
             "#  -   #   -  #"};
 
+    /** Bonus symbol of each square (row * WIDTH + column), copied from LAYOUT. Not hidden by tiles played on it. */
+    private static final char[] PREMIUMS = new char[WIDTH * WIDTH];
+
+    /** Multiplier applied to the value of a tile played on each square (row * WIDTH + column). */
+    private static final int[] LETTER_MULTIPLIERS = new int[WIDTH * WIDTH];
+
+    /** Multiplier applied to a word with a tile played on each square (row * WIDTH + column). */
+    private static final int[] WORD_MULTIPLIERS = new int[WIDTH * WIDTH];
+
     // A static block like this is called once when the class is loaded. It is useful for initializing complex
     // static fields.
     static {
-        // Load dictionary
-        In in = new In("enable1.txt");
-        for (String word : in.readAllLines()) {
-            DICTIONARY.add(word);
-        }
         // Initialize tile values
-        for (char c : "eaionrtlsu".toCharArray()) {
-            TILE_VALUES.put(c, 1);
+        setValues("eaionrtlsu", 1);
+        setValues("dg", 2);
+        setValues("bcmp", 3);
+        setValues("fhvwy", 4);
+        setValues("k", 5);
+        setValues("jx", 8);
+        setValues("qz", 10);
+        Map<Character, Integer> values = new HashMap<>();
+        for (char c = 'a'; c <= 'z'; c++) {
+            values.put(c, VALUES[c]);
+            values.put(Character.toUpperCase(c), 0);
         }
-        for (char c : "dg".toCharArray()) {
-            TILE_VALUES.put(c, 2);
+        values.put('_', 0);
+        TILE_VALUES = Collections.unmodifiableMap(values);
+        // Record bonus squares
+        for (int r = 0; r < WIDTH; r++) {
+            for (int c = 0; c < WIDTH; c++) {
+                int i = r * WIDTH + c;
+                PREMIUMS[i] = LAYOUT[r].charAt(c);
+                LETTER_MULTIPLIERS[i] = PREMIUMS[i] == DOUBLE_LETTER_SCORE ? 2 : PREMIUMS[i] == TRIPLE_LETTER_SCORE ? 3 : 1;
+                WORD_MULTIPLIERS[i] = PREMIUMS[i] == DOUBLE_WORD_SCORE ? 2 : PREMIUMS[i] == TRIPLE_WORD_SCORE ? 3 : 1;
+            }
         }
-        for (char c : "bcmp".toCharArray()) {
-            TILE_VALUES.put(c, 3);
+        // Draw Zobrist keys from a fixed seed, so hashes are the same in every run
+        Random random = new Random(0);
+        for (long[] keys : SQUARE_KEYS) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
         }
-        for (char c : "fhvwy".toCharArray()) {
-            TILE_VALUES.put(c, 4);
+        for (long[][] player : HAND_KEYS) {
+            for (long[] keys : player) {
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = random.nextLong();
+                }
+            }
         }
-        TILE_VALUES.put('k', 5);
-        for (char c : "jx".toCharArray()) {
-            TILE_VALUES.put(c, 8);
+        PLAYER_KEY = random.nextLong();
+        for (int i = 0; i < PASS_KEYS.length; i++) {
+            PASS_KEYS[i] = random.nextLong();
         }
-        for (char c : "qz".toCharArray()) {
-            TILE_VALUES.put(c, 10);
+    }
+
+    /**
+     * Holds the Lexicon of legal words. The JVM initializes this class, loading the words, only when it is first
+     * used, so using Board for its constants or an empty board does not wait for the dictionary. Initialization is
+     * thread-safe: a thread needing the words while another is loading them waits for that load to finish.
+     */
+    private static class LexiconHolder {
+
+        /** Legal words. */
+        static final Lexicon DICTIONARY = DawgLexicon.load("enable1.txt");
+
+    }
+
+    /** True once warmUpLexicon has started a loader. */
+    private static final AtomicBoolean WARM_UP_STARTED = new AtomicBoolean();
+
+    /**
+     * Starts loading the Lexicon of legal words on a background thread and returns immediately. Programs can call
+     * this early so that the words are ready by the time the first play is checked. Only the first call starts a
+     * thread; later calls do nothing.
+     */
+    public static void warmUpLexicon() {
+        if (!WARM_UP_STARTED.compareAndSet(false, true)) {
+            return;
         }
-        for (char c = 'A'; c <= 'Z'; c++) {
-            TILE_VALUES.put(c, 0);
+        Thread loader = new Thread(Board::getLexicon, "lexicon-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** Sets the value of each letter in letters. */
+    private static void setValues(String letters, int value) {
+        for (int i = 0; i < letters.length(); i++) {
+            VALUES[letters.charAt(i)] = value;
         }
-        TILE_VALUES.put('_', 0);
     }
 
-    /** Squares on the board (whether occupied by tiles or not). */
-    private char[][] squares;
+    /** Returns the value of tile ('a' through 'z', '_', or 'A' through 'Z' for a played blank). */
+    public static int getValue(char tile) {
+        return VALUES[tile];
+    }
+
+    /** Returns the letter multiplier (1, 2, or 3) of the square at row, column. */
+    public static int getLetterMultiplier(int row, int column) {
+        return LETTER_MULTIPLIERS[row * WIDTH + column];
+    }
+
+    /** Returns the word multiplier (1, 2, or 3) of the square at row, column. */
+    public static int getWordMultiplier(int row, int column) {
+        return WORD_MULTIPLIERS[row * WIDTH + column];
+    }
+
+    /** Tile on each square (row * WIDTH + column), or 0 if the square is empty. */
+    private byte[] tiles;
+
+    /** For each row, a bit mask with bit c set if the square in column c is occupied. */
+    private int[] rowOccupancy;
+
+    /** For each column, a bit mask with bit r set if the square in row r is occupied. */
+    private int[] columnOccupancy;
 
     /** Hands of the players. */
-    private ArrayList<Character>[] hands;
+    private TileRack[] hands;
 
     /** The bag of remaining tiles. */
-    private ArrayList<Character> bag;
+    private TileBag bag;
 
     /** Scores of the players. */
     private int[] scores;
@@ -109,36 +279,174 @@ public class Board {
     /** Number of consecutive tile exchange turns; 2 ends the game. */
     private int numberOfPasses;
 
+    /** Zobrist hash of the tiles on the board, the current player, and the number of passes. */
+    private long hash;
+
+    /** Zobrist hash of each player's hand. */
+    private long[] handHashes;
+
+    /**
+     * For each direction (ACROSS or DOWN) and empty square (row * WIDTH + column), the letters that can be played
+     * there in a word going in that direction without forming an invalid perpendicular word. 0 for occupied squares.
+     */
+    private int[][] crossChecks;
+
+    /**
+     * For each direction and empty square, indexed like crossChecks, the total value of the tiles in the
+     * perpendicular word that a tile played there would join, or -1 if there are no such tiles.
+     */
+    private int[][] crossScores;
+
+    /**
+     * Bit set with one bit (row * WIDTH + column) for each anchor square: an empty square next to a tile, or the
+     * empty center.
+     */
+    private long[] anchors;
+
+    /**
+     * Undo journal for makeMove: entries of three ints (see UNDO_TILE etc.) in journal[0], ...,
+     * journal[journalSize - 1]. Changes are only recorded while at least one move made by makeMove is outstanding.
+     */
+    private int[] journal;
+
+    /** Number of ints in use in journal. */
+    private int journalSize;
+
+    /** For each outstanding move made by makeMove, the journalSize before the move. */
+    private int[] frames;
+
+    /** Number of outstanding moves made by makeMove. */
+    private int depth;
+
+    /** Scratch space for the tiles being exchanged. */
+    private char[] exchanged;
+
     public Board() {
-        // Create squares on board
-        squares = new char[15][15];
-        for (int r = 0; r < squares.length; r++) {
-            for (int c = 0; c < squares.length; c++) {
-                squares[r][c] = LAYOUT[r].charAt(c);
-            }
-        }
+        this(new Random());
+    }
+
+    /**
+     * @param random Source of randomness for drawing tiles from the bag. Boards created with identically seeded
+     *               Randoms deal identical tiles in response to identical moves.
+     */
+    public Board(Random random) {
+        // Create empty squares on board
+        tiles = new byte[WIDTH * WIDTH];
+        rowOccupancy = new int[WIDTH];
+        columnOccupancy = new int[WIDTH];
         // Create bag
-        bag = new ArrayList<Character>();
-        for (char tile : "aaaaaaaaabbccddddeeeeeeeeeeeeffggghhiiiiiiiiijkllllmmnnnnnnooooooooppqrrrrrrssssttttttuuuuvvwwxyyz__".toCharArray()) {
-            bag.add(tile);
-        }
-        Collections.shuffle(bag);
+        bag = new TileBag(random);
         // Deal initial hands
-        hands = new ArrayList[] {new ArrayList<Character>(), new ArrayList<Character>()};
-        deal(hands[0], 7);
-        deal(hands[1], 7);
+        hands = new TileRack[] {new TileRack(), new TileRack()};
+        bag.deal(hands[0], 7);
+        bag.deal(hands[1], 7);
         // Initialize miscellaneous variables
         scores = new int[2];
+        hash = PASS_KEYS[0];
+        handHashes = new long[] {hashHand(hands[0], 0), hashHand(hands[1], 1)};
+        // With no tiles on the board, any letter can go anywhere and only the center is an anchor
+        crossChecks = new int[2][WIDTH * WIDTH];
+        crossScores = new int[2][WIDTH * WIDTH];
+        for (int d = ACROSS; d <= DOWN; d++) {
+            Arrays.fill(crossChecks[d], Lexicon.ALL_LETTERS);
+            Arrays.fill(crossScores[d], -1);
+        }
+        anchors = new long[(WIDTH * WIDTH + 63) / 64];
+        setAnchor(Location.CENTER, true);
+        journal = new int[3 * 256];
+        frames = new int[16];
+        exchanged = new char[7];
     }
 
-    /** Deals n tiles from the bag into hand. */
-    private void deal(ArrayList<Character> hand, int n) {
+    /**
+     * Creates a copy of original whose bag draws tiles using random. Moves made on original by makeMove and not yet
+     * retracted are part of the copy's position, but cannot be retracted from the copy.
+     */
+    private Board(Board original, Random random) {
+        tiles = original.tiles.clone();
+        rowOccupancy = original.rowOccupancy.clone();
+        columnOccupancy = original.columnOccupancy.clone();
+        bag = new TileBag(original.bag, random);
+        hands = new TileRack[] {new TileRack(original.hands[0]), new TileRack(original.hands[1])};
+        scores = original.scores.clone();
+        currentPlayer = original.currentPlayer;
+        numberOfPasses = original.numberOfPasses;
+        hash = original.hash;
+        handHashes = original.handHashes.clone();
+        crossChecks = new int[][] {original.crossChecks[ACROSS].clone(), original.crossChecks[DOWN].clone()};
+        crossScores = new int[][] {original.crossScores[ACROSS].clone(), original.crossScores[DOWN].clone()};
+        anchors = original.anchors.clone();
+        journal = new int[3 * 256];
+        frames = new int[16];
+        exchanged = new char[7];
+    }
+
+    /**
+     * Returns a copy of this Board as player sees it. The tiles on the board, player's hand, and the scores are as
+     * here, but the opponent's hand is dealt at random from the tiles player cannot see: those in the bag and in the
+     * opponent's hand. The copy draws all of its tiles using random, so it is a cheap, independent position for
+     * simulating the rest of the game.
+     */
+    public Board sample(int player, Random random) {
+        Board result = new Board(this, random);
+        TileRack hidden = result.hands[1 - player];
+        int n = hidden.size();
         for (int i = 0; i < n; i++) {
-            if (bag.isEmpty()) {
-                return; // No tile left to draw!
+            result.bag.add(hidden.get(i));
+        }
+        hidden.clear();
+        result.bag.deal(hidden, n);
+        result.handHashes[1 - player] = hashHand(hidden, 1 - player);
+        return result;
+    }
+
+    /** Returns the Zobrist hash of hand, as player's hand, computed from scratch. */
+    private static long hashHand(TileRack hand, int player) {
+        long result = 0;
+        for (int kind = 0; kind < TileRack.KINDS; kind++) {
+            for (int n = 0; n < hand.count(kind); n++) {
+                result ^= HAND_KEYS[player][kind][n];
             }
-            hand.add(bag.remove(bag.size() - 1));
         }
+        return result;
+    }
+
+    /** Returns the index in SQUARE_KEYS of a tile on the board. */
+    private static int keyIndex(char tile) {
+        return tile >= 'a' ? tile - 'a' : 26 + tile - 'A';
+    }
+
+    /**
+     * Returns a 64-bit Zobrist hash of this position: the tiles on the board, both hands, the current player, and the
+     * number of passes. Equal positions have equal hashes, and unequal ones almost certainly do not. The hash is
+     * kept up to date as moves are played (and retracted), at a cost proportional to the number of tiles they move.
+     * Changes made to a hand other than through this Board are not reflected.
+     */
+    public long getHash() {
+        return hash ^ handHashes[0] ^ handHashes[1];
+    }
+
+    /**
+     * Returns a 64-bit Zobrist hash of this position as player sees it, leaving out the opponent's hand. Positions
+     * that player cannot tell apart have equal hashes.
+     */
+    public long getHash(int player) {
+        return hash ^ handHashes[player];
+    }
+
+    /** Returns ACROSS for Location.HORIZONTAL, DOWN for Location.VERTICAL. */
+    public static int directionIndex(Location direction) {
+        return direction.getRow() == 0 ? ACROSS : DOWN;
+    }
+
+    /** Returns the index of location in tables with one entry per square. */
+    private static int index(Location location) {
+        return location.getRow() * WIDTH + location.getColumn();
+    }
+
+    /** Returns the Lexicon of legal words, loading it first (or waiting for warmUpLexicon to) if necessary. */
+    public static Lexicon getLexicon() {
+        return LexiconHolder.DICTIONARY;
     }
 
     /**
@@ -146,10 +454,15 @@ public class Board {
      *
      * @param player Player number (0 or 1).
      */
-    public ArrayList<Character> getHand(int player) {
+    public TileRack getHand(int player) {
         return hands[player];
     }
 
+    /** Returns the number of tiles left in the bag. */
+    public int getBagSize() {
+        return bag.size();
+    }
+
     /**
      * Returns player's score.
      *
@@ -161,41 +474,29 @@ public class Board {
 
     @Override
     public String toString() {
-        String result = "";
-        for (int r = 0; r < squares.length; r++) {
-            for (int c = 0; c < squares.length; c++) {
-                result += squares[r][c];
+        StringBuilder result = new StringBuilder();
+        for (int r = 0; r < WIDTH; r++) {
+            for (int c = 0; c < WIDTH; c++) {
+                result.append(getSquare(r, c));
             }
-            result += "\n";
+            result.append("\n");
         }
-        return result;
+        return result.toString();
     }
 
     /**
      * Returns true if word can be played from the tiles available in hand.
      */
-    public boolean canBeDrawnFromHand(String word, ArrayList<Character> hand) {
-        boolean[] used = new boolean[hand.size()];
-        for (char c : word.toCharArray()) {
-            if (c == ' ') {
-                continue;
-            }
-            boolean found = false;
-            for (int i = 0; i < hand.size(); i++) {
-                if (!used[i]) {
-                    char tile = hand.get(i);
-                    if (c == tile || (Character.isUpperCase(c) && (tile == '_'))) {
-                        used[i] = true;
-                        found = true;
-                        break;
-                    }
-                }
-            }
-            if (!found) {
-                return false;
-            }
-        }
-        return true;
+    public boolean canBeDrawnFromHand(String word, List<Character> hand) {
+        return canBeDrawnFromHand(word.toCharArray(), word.length(), hand);
+    }
+
+    /**
+     * Returns true if word[0], ..., word[length - 1] can be played from the tiles available in hand.
+     */
+    private boolean canBeDrawnFromHand(char[] word, int length, List<Character> hand) {
+        TileRack rack = hand instanceof TileRack ? (TileRack) hand : new TileRack(hand);
+        return rack.canCover(word, length);
     }
 
     /**
@@ -203,91 +504,323 @@ public class Board {
      * leaving no gaps, having no tiles right before or after it, and not extending beyond the edge of the board.
      */
     public boolean canBePlacedOnBoard(String word, Location location, Location direction) {
-        // Check for tile right before word
-        Location before = location.antineighbor(direction);
-        if (before.isOnBoard() && isOccupied(before)) {
+        return canBePlacedOnBoard(word.toCharArray(), word.length(), location, direction);
+    }
+
+    /**
+     * Returns true if word[0], ..., word[length - 1] can be placed on board.
+     *
+     * @see #canBePlacedOnBoard(String, Location, Location)
+     */
+    private boolean canBePlacedOnBoard(char[] word, int length, Location location, Location direction) {
+        int d = directionIndex(direction);
+        int line = d == ACROSS ? location.getRow() : location.getColumn();
+        int start = d == ACROSS ? location.getColumn() : location.getRow();
+        int end = start + length;
+        if (line < 0 || line >= WIDTH || start < 0 || end > WIDTH) { // Off edge of board
             return false;
         }
-        // Check squares within word
-        for (char c : word.toCharArray()) {
-            if (!location.isOnBoard()) { // Off edge of board
-                return false;
-            }
-            char current = getSquare(location);
-            if ((c == ' ') != (Character.isAlphabetic(current))) {
-                // Tile played on top of existing tile or gap in word where there is no tile
-                return false;
+        int spaces = 0;
+        for (int i = 0; i < length; i++) {
+            if (word[i] == ' ') {
+                spaces |= 1 << (start + i);
             }
-            location = location.neighbor(direction);
         }
-        // Check for tile right after word
-        if (location.isOnBoard() && isOccupied(location)) {
-            return false;
+        // The squares covered by word, plus the ones right before and after it
+        int window = span(start - 1, end + 1);
+        // Existing tiles must be exactly where the spaces are; anything else is an overlap, gap, or adjacent tile
+        return (lineOccupancy(line, d) & window) == spaces;
+    }
+
+    /**
+     * Returns the occupancy bit mask of a row (if direction is ACROSS) or column (if direction is DOWN), or 0 if line
+     * is off the board.
+     */
+    private int lineOccupancy(int line, int direction) {
+        if (line < 0 || line >= WIDTH) {
+            return 0;
         }
-        // No problems!
-        return true;
+        return direction == ACROSS ? rowOccupancy[line] : columnOccupancy[line];
+    }
+
+    /** Returns the bits for the on-board positions from start (inclusive) to end (exclusive) of a row or column. */
+    private static int span(int start, int end) {
+        start = Math.max(start, 0);
+        end = Math.min(end, WIDTH);
+        if (end <= start) {
+            return 0;
+        }
+        return ((1 << (end - start)) - 1) << start;
     }
 
     /**
      * Returns the letter or symbol at location.
      */
     public char getSquare(Location location) {
-        return squares[location.getRow()][location.getColumn()];
+        return getSquare(location.getRow(), location.getColumn());
     }
 
     /**
-     * Sets the letter or symbol at location.
+     * Returns the letter or symbol at row, column.
+     */
+    public char getSquare(int row, int column) {
+        int i = row * WIDTH + column;
+        return tiles[i] == 0 ? PREMIUMS[i] : (char) tiles[i];
+    }
+
+    /**
+     * Returns the bonus symbol at row, column, whether or not it is covered by a tile.
+     */
+    public static char getPremium(int row, int column) {
+        return PREMIUMS[row * WIDTH + column];
+    }
+
+    /**
+     * Places tile at location.
      */
     private void setSquare(char tile, Location location) {
-        squares[location.getRow()][location.getColumn()] = tile;
+        int r = location.getRow();
+        int c = location.getColumn();
+        tiles[r * WIDTH + c] = (byte) tile;
+        hash ^= SQUARE_KEYS[r * WIDTH + c][keyIndex(tile)];
+        rowOccupancy[r] |= 1 << c;
+        columnOccupancy[c] |= 1 << r;
+        record(UNDO_TILE, r * WIDTH + c, 0);
+    }
+
+    /** Removes the tile from square i (row * WIDTH + column). */
+    private void clearSquare(int i) {
+        int r = i / WIDTH;
+        int c = i % WIDTH;
+        hash ^= SQUARE_KEYS[i][keyIndex((char) tiles[i])];
+        tiles[i] = 0;
+        rowOccupancy[r] &= ~(1 << c);
+        columnOccupancy[c] &= ~(1 << r);
     }
 
     /**
      * Places word on board at the specified location and direction. Assumes this is legal.
      */
     public void placeWord(String word, Location location, Location direction) {
-        for (char c : word.toCharArray()) {
-            if (c != ' ') {
-                setSquare(c, location);
+        placeWord(word.toCharArray(), word.length(), location, direction);
+    }
+
+    /**
+     * Places word[0], ..., word[length - 1] on board at the specified location and direction. Assumes this is legal.
+     */
+    private void placeWord(char[] word, int length, Location location, Location direction) {
+        Location start = location;
+        for (int i = 0; i < length; i++) {
+            if (word[i] != ' ') {
+                setSquare(word[i], location);
             }
             location = location.neighbor(direction);
         }
+        updateCrossChecksAndAnchors(word, length, start, direction);
     }
 
     /**
-     * Returns true if word, placed at location in direction, would be connected. In other words,
-     * word must contain an existing tile, be beside an existing tile, or contain the center.
+     * Updates crossChecks, crossScores, and anchors after word has been placed at location in direction. Only the
+     * squares at the ends of words containing new tiles can be affected.
      */
-    public boolean wouldBeConnected(String word, Location location, Location direction) {
+    private void updateCrossChecksAndAnchors(char[] word, int length, Location location, Location direction) {
+        int along = directionIndex(direction);
         Location cross = direction.opposite();
-        for (char c : word.toCharArray()) {
-            if (c == ' ') {
-                return true;
+        Location first = location;
+        Location last = location;
+        for (int j = 0; j < length; j++) {
+            if (word[j] != ' ') {
+                int i = index(location);
+                setCrossCheck(ACROSS, i, 0, -1);
+                setCrossCheck(DOWN, i, 0, -1);
+                setAnchor(location, false);
+                markAnchorIfEmpty(location.neighbor(direction));
+                markAnchorIfEmpty(location.antineighbor(direction));
+                markAnchorIfEmpty(location.neighbor(cross));
+                markAnchorIfEmpty(location.antineighbor(cross));
+                // Ends of the perpendicular word through this tile
+                updateCrossCheck(findStartOfWord(location, cross).antineighbor(cross), along);
+                updateCrossCheck(findEndOfWord(location, cross).neighbor(cross), along);
             }
-            if (location.equals(Location.CENTER)) {
-                return true;
+            last = location;
+            location = location.neighbor(direction);
+        }
+        // Ends of the word itself
+        updateCrossCheck(findStartOfWord(first, direction).antineighbor(direction), 1 - along);
+        updateCrossCheck(findEndOfWord(last, direction).neighbor(direction), 1 - along);
+    }
+
+    /**
+     * Recomputes the cross-check and cross score at location for words going in direction (ACROSS or DOWN). Has no
+     * effect if location is off the board or occupied.
+     */
+    private void updateCrossCheck(Location location, int direction) {
+        if (!location.isOnBoard() || isOccupied(location)) {
+            return;
+        }
+        int i = index(location);
+        Location cross = direction == ACROSS ? Location.VERTICAL : Location.HORIZONTAL;
+        Location before = location.antineighbor(cross);
+        Location after = location.neighbor(cross);
+        boolean tileBefore = before.isOnBoard() && isOccupied(before);
+        boolean tileAfter = after.isOnBoard() && isOccupied(after);
+        if (!tileBefore && !tileAfter) {
+            setCrossCheck(direction, i, Lexicon.ALL_LETTERS, -1);
+            return;
+        }
+        // Walk the Lexicon through the tiles before location, then try each letter followed by the tiles after
+        Lexicon dictionary = getLexicon();
+        int node = dictionary.root();
+        int score = 0;
+        if (tileBefore) {
+            for (Location l = findStartOfWord(before, cross); !l.equals(location); l = l.neighbor(cross)) {
+                node = node == Lexicon.NO_NODE ? node : dictionary.child(node, getSquare(l));
+                score += VALUES[getSquare(l)];
             }
-            Location after = location.neighbor(cross);
-            if (after.isOnBoard() && isOccupied(after)) {
-                return true;
+        }
+        for (Location l = after; l.isOnBoard() && isOccupied(l); l = l.neighbor(cross)) {
+            score += VALUES[getSquare(l)];
+        }
+        int letters = 0;
+        if (node != Lexicon.NO_NODE) {
+            for (int candidates = dictionary.childLetters(node); candidates != 0; candidates &= candidates - 1) {
+                int letter = Integer.numberOfTrailingZeros(candidates);
+                int n = dictionary.child(node, (char) ('a' + letter));
+                for (Location l = after; n != Lexicon.NO_NODE && l.isOnBoard() && isOccupied(l); l = l.neighbor(cross)) {
+                    n = dictionary.child(n, getSquare(l));
+                }
+                if (n != Lexicon.NO_NODE && dictionary.isWord(n)) {
+                    letters |= 1 << letter;
+                }
             }
-            Location before = location.antineighbor(cross);
-            if (before.isOnBoard() && isOccupied(before)) {
+        }
+        setCrossCheck(direction, i, letters, score);
+    }
+
+    /** Sets the cross-check and cross score for words going in direction through square i (row * WIDTH + column). */
+    private void setCrossCheck(int direction, int i, int letters, int score) {
+        if (crossChecks[direction][i] != letters) {
+            record(UNDO_CROSS_CHECK + direction, i, crossChecks[direction][i]);
+            crossChecks[direction][i] = letters;
+        }
+        if (crossScores[direction][i] != score) {
+            record(UNDO_CROSS_SCORE + direction, i, crossScores[direction][i]);
+            crossScores[direction][i] = score;
+        }
+    }
+
+    /** Adds location to the set of anchors if it is an empty square on the board. */
+    private void markAnchorIfEmpty(Location location) {
+        if (location.isOnBoard() && !isOccupied(location)) {
+            setAnchor(location, true);
+        }
+    }
+
+    /** Adds location to (or, if value is false, removes it from) the set of anchors. */
+    private void setAnchor(Location location, boolean value) {
+        int i = index(location);
+        boolean old = (anchors[i >> 6] & (1L << i)) != 0;
+        if (old == value) {
+            return;
+        }
+        record(UNDO_ANCHOR, i, old ? 1 : 0);
+        if (value) {
+            anchors[i >> 6] |= 1L << i;
+        } else {
+            anchors[i >> 6] &= ~(1L << i);
+        }
+    }
+
+    /**
+     * Returns true if the square at row, column is an anchor: an empty square next to a tile, or the empty center.
+     * Every legal play covers at least one anchor.
+     */
+    public boolean isAnchor(int row, int column) {
+        int i = row * WIDTH + column;
+        return (anchors[i >> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Returns the letters, as a Lexicon mask, that can be played on the empty square at row, column in a word going in
+     * direction (ACROSS or DOWN) without forming an invalid perpendicular word. Returns 0 for occupied squares.
+     */
+    public int getCrossCheck(int direction, int row, int column) {
+        return crossChecks[direction][row * WIDTH + column];
+    }
+
+    /**
+     * Returns the total value of the tiles in the perpendicular word that a tile played on the empty square at row,
+     * column in a word going in direction (ACROSS or DOWN) would join, or -1 if there is no such word.
+     */
+    public int getCrossScore(int direction, int row, int column) {
+        return crossScores[direction][row * WIDTH + column];
+    }
+
+    /**
+     * Returns true if word, placed at location in direction, would be connected. In other words,
+     * word must contain an existing tile, be beside an existing tile, or contain the center.
+     */
+    public boolean wouldBeConnected(String word, Location location, Location direction) {
+        return wouldBeConnected(word.toCharArray(), word.length(), location, direction);
+    }
+
+    /**
+     * Returns true if word[0], ..., word[length - 1], placed at location in direction, would be connected.
+     *
+     * @see #wouldBeConnected(String, Location, Location)
+     */
+    private boolean wouldBeConnected(char[] word, int length, Location location, Location direction) {
+        for (int i = 0; i < length; i++) {
+            if (word[i] == ' ') {
                 return true;
             }
-            location = location.neighbor(direction);
         }
-        return false;
+        int d = directionIndex(direction);
+        int line = d == ACROSS ? location.getRow() : location.getColumn();
+        int start = d == ACROSS ? location.getColumn() : location.getRow();
+        int covered = span(start, start + length);
+        if (line == WIDTH / 2 && (covered & (1 << (WIDTH / 2))) != 0) {
+            return true; // Contains the center
+        }
+        return ((lineOccupancy(line - 1, d) | lineOccupancy(line + 1, d)) & covered) != 0;
     }
 
     /**
      * Finds the start of a (cross) word including location and moving in direction.
      */
     public Location findStartOfWord(Location location, Location direction) {
-        do { // Back up until we leave the board or find an unoccupied square
-            location = location.antineighbor(direction);
-        } while (location.isOnBoard() && isOccupied(location));
-        return location.neighbor(direction);
+        int d = directionIndex(direction);
+        int line = d == ACROSS ? location.getRow() : location.getColumn();
+        int position = d == ACROSS ? location.getColumn() : location.getRow();
+        if (line < 0 || line >= WIDTH || position < 0 || position > WIDTH) {
+            return location;
+        }
+        // Back up to just after the last empty square before position
+        int empty = ~lineOccupancy(line, d) & ((1 << position) - 1);
+        int start = 32 - Integer.numberOfLeadingZeros(empty);
+        if (start == position) {
+            return location;
+        }
+        return d == ACROSS ? Location.of(line, start) : Location.of(start, line);
+    }
+
+    /**
+     * Finds the end of a (cross) word including location and moving in direction.
+     */
+    public Location findEndOfWord(Location location, Location direction) {
+        int d = directionIndex(direction);
+        int line = d == ACROSS ? location.getRow() : location.getColumn();
+        int position = d == ACROSS ? location.getColumn() : location.getRow();
+        if (line < 0 || line >= WIDTH || position < -1 || position >= WIDTH) {
+            return location;
+        }
+        // Advance to just before the first empty square after position
+        int empty = ~lineOccupancy(line, d) & FULL_LINE & (-1 << (position + 1));
+        int end = empty == 0 ? WIDTH - 1 : Integer.numberOfTrailingZeros(empty) - 1;
+        if (end == position) {
+            return location;
+        }
+        return d == ACROSS ? Location.of(line, end) : Location.of(end, line);
     }
 
     /**
@@ -300,58 +833,92 @@ public class Board {
         if (tile == ' ') {
             return true; // Word was already on board
         }
-        location = findStartOfWord(location, direction);
-        String word = "";
-        boolean tileUsed = false;
-        while (location.isOnBoard()) {
-            if (isOccupied(location)) {
-                word += getSquare(location);
-            } else if (tileUsed) {
-                break;
-            } else {
-                word += tile;
-                tileUsed = true;
-            }
-            location = location.neighbor(direction);
-        }
-        if (word.length() == 1) {
-            return true;
+        int i = index(location);
+        int along = 1 - directionIndex(direction);
+        if (crossScores[along][i] < 0 && crossChecks[along][i] != 0) {
+            return true; // No tiles to form a cross word with
         }
-        return DICTIONARY.contains(word.toLowerCase());
+        int letter = Dawg.indexOf(tile);
+        return letter >= 0 && (crossChecks[along][i] & (1 << letter)) != 0;
     }
 
     /**
      * Returns true if word, played at location in direction, forms a valid dictionary word of at least two letters.
      */
     public boolean isValidWord(String word, Location location, Location direction) {
-        if (word.length() < 2) {
+        return isValidWord(word.toCharArray(), word.length(), location, direction);
+    }
+
+    /**
+     * Returns true if word[0], ..., word[length - 1], played at location in direction, forms a valid dictionary word
+     * of at least two letters.
+     */
+    private boolean isValidWord(char[] word, int length, Location location, Location direction) {
+        if (length < 2) {
             return false;
         }
-        char[] letters = new char[word.length()];
-        for (int i = 0; i < word.length(); i++) {
+        // Costs next to nothing unless a flight recording is enabling the event
+        LexiconLookupEvent event = new LexiconLookupEvent();
+        if (!event.isEnabled() || !LexiconLookupEvent.sample()) {
+            return lookUp(word, length, location, direction);
+        }
+        event.begin();
+        boolean result = lookUp(word, length, location, direction);
+        event.end();
+        if (event.shouldCommit()) {
+            char[] formed = new char[length];
+            for (int i = 0; i < length && location.isOnBoard(); i++) {
+                formed[i] = isOccupied(location) ? getSquare(location) : word[i];
+                location = location.neighbor(direction);
+            }
+            event.word = new String(formed);
+            event.valid = result;
+            event.commit();
+        }
+        return result;
+    }
+
+    /** Does the work of isValidWord once the length has been checked. */
+    private boolean lookUp(char[] word, int length, Location location, Location direction) {
+        Lexicon dictionary = getLexicon();
+        int node = dictionary.root();
+        for (int i = 0; i < length && node != Lexicon.NO_NODE; i++) {
+            if (!location.isOnBoard()) {
+                return false;
+            }
             if (isOccupied(location)) {
-                letters[i] = getSquare(location);
+                node = dictionary.child(node, getSquare(location));
             } else {
-                letters[i] = word.charAt(i);
+                node = dictionary.child(node, word[i]);
             }
             location = location.neighbor(direction);
         }
-        return DICTIONARY.contains(new String(letters).toLowerCase());
+        return node != Lexicon.NO_NODE && dictionary.isWord(node);
     }
 
     /** Returns true if the square at location contains a tile. */
     public boolean isOccupied(Location location) {
-        return Character.isAlphabetic(getSquare(location));
+        return isOccupied(location.getRow(), location.getColumn());
+    }
+
+    /** Returns true if the square at row, column contains a tile. */
+    public boolean isOccupied(int row, int column) {
+        return (rowOccupancy[row] & (1 << column)) != 0;
     }
 
     /** Returns true if word, played at location and direction, would create only legal words. */
     public boolean wouldCreateOnlyLegalWords(String word, Location location, Location direction) {
-        if (!isValidWord(word, location, direction)) {
+        return wouldCreateOnlyLegalWords(word.toCharArray(), word.length(), location, direction);
+    }
+
+    /** Returns true if word[0], ..., word[length - 1], played at location and direction, would create only legal words. */
+    private boolean wouldCreateOnlyLegalWords(char[] word, int length, Location location, Location direction) {
+        if (!isValidWord(word, length, location, direction)) {
             return false;
         }
         Location cross = direction.opposite();
-        for (char c : word.toCharArray()) {
-            if (!isValidWord(location, cross, c)) {
+        for (int i = 0; i < length; i++) {
+            if (!isValidWord(location, cross, word[i])) {
                 return false;
             }
             location = location.neighbor(direction);
@@ -365,72 +932,50 @@ public class Board {
      * @param tile The one tile played in this word.
      */
     private int scoreWord(Location location, Location direction, char tile) {
-        int score = 0;
-        int multiplier = 1;
-        location = findStartOfWord(location, direction);
-        if (location.neighbor(direction).isOnBoard() && !isOccupied(location.neighbor(direction))) {
+        // crossScores already holds the value of the other tiles in the cross word, if there are any
+        int i = index(location);
+        int others = crossScores[1 - directionIndex(direction)][i];
+        if (others < 0) {
             // One letter "cross word"
             return 0;
         }
-        boolean tileUsed = false;
-        while (location.isOnBoard()) {
-            char square = getSquare(location);
-            if (isOccupied(location)) {
-                score += TILE_VALUES.get(square);
-            } else if (tileUsed) {
-                break;
-            } else {
-                score += TILE_VALUES.get(tile);
-                char bonus = getSquare(location);
-                if (bonus == DOUBLE_LETTER_SCORE) {
-                    score += TILE_VALUES.get(tile);
-                } else if (bonus == TRIPLE_LETTER_SCORE) {
-                    score += 2 * TILE_VALUES.get(tile);
-                } else if (bonus == DOUBLE_WORD_SCORE) {
-                    multiplier *= 2;
-                } else if (bonus == TRIPLE_WORD_SCORE) {
-                    multiplier *= 3;
-                }
-                tileUsed = true;
-            }
-            location = location.neighbor(direction);
-        }
-        return score * multiplier;
+        return (others + VALUES[tile] * LETTER_MULTIPLIERS[i]) * WORD_MULTIPLIERS[i];
     }
 
-    /** Returns the points scored for word, played at location in direction. */
-    private int scoreWord(String word, Location location, Location direction) {
+    /** Returns the points scored for word[0], ..., word[length - 1], played at location in direction. */
+    private int scoreWord(char[] word, int length, Location location, Location direction) {
         int result = 0;
         int multiplier = 1;
-        for (char c : word.toCharArray()) {
-            char square = getSquare(location);
+        int i = index(location);
+        int step = directionIndex(direction) == ACROSS ? 1 : WIDTH;
+        for (int j = 0; j < length; j++, i += step) {
+            char c = word[j];
             if (c == ' ') {
-                result += TILE_VALUES.get(square);
+                result += VALUES[tiles[i]];
             } else {
-                result += TILE_VALUES.get(c);
-                if (square == DOUBLE_LETTER_SCORE) {
-                    result += TILE_VALUES.get(c);
-                } else if (square == TRIPLE_LETTER_SCORE) {
-                    result += 2 * TILE_VALUES.get(c);
-                } else if (square == DOUBLE_WORD_SCORE) {
-                    multiplier *= 2;
-                } else if (square == TRIPLE_WORD_SCORE) {
-                    multiplier *= 3;
-                }
+                result += VALUES[c] * LETTER_MULTIPLIERS[i];
+                multiplier *= WORD_MULTIPLIERS[i];
             }
-            location = location.neighbor(direction);
         }
-        result *= multiplier;
-        return result;
+        return result * multiplier;
     }
 
     /** Returns the score for playing word at location in direction, including any cross words. */
     public int score(String word, Location location, Location direction) {
+        return score(word.toCharArray(), word.length(), location, direction);
+    }
+
+    /**
+     * Returns the score for playing word[0], ..., word[length - 1] at location in direction, including any cross
+     * words.
+     */
+    private int score(char[] word, int length, Location location, Location direction) {
         // Score word submitted
-        int result = scoreWord(word, location, direction);
+        int result = scoreWord(word, length, location, direction);
         int tilesPlayed = 0;
         // Score cross words
-        for (char c : word.toCharArray()) {
+        for (int i = 0; i < length; i++) {
+            char c = word[i];
             if (c != ' ') {
                 result += scoreWord(location, direction.opposite(), c);
                 tilesPlayed++;
@@ -444,41 +989,90 @@ public class Board {
     }
 
     /** Throws an IllegalMoveException if playing word at location in direction from hand would not be legal. */
-    public void verifyLegality(String word, Location location, Location direction, ArrayList<Character> hand) throws IllegalMoveException {
-        if (word.length() < 2) {
-            throw new IllegalMoveException("Word must be at least two letters long.");
+    public void verifyLegality(String word, Location location, Location direction, List<Character> hand) throws IllegalMoveException {
+        int result = checkLegality(word.toCharArray(), word.length(), location, direction, hand);
+        if (result != LEGAL) {
+            throw new IllegalMoveException(ILLEGALITY_MESSAGES[result]);
         }
-        if (!canBeDrawnFromHand(word, hand)) {
-            throw new IllegalMoveException("Hand does not contain sufficient tiles to play word.");
+    }
+
+    /**
+     * Returns LEGAL if playing word[0], ..., word[length - 1] at row, column in direction (ACROSS or DOWN) from hand
+     * would be legal, or another result code (TOO_SHORT, NO_TILES_PLAYED, NOT_IN_HAND, BAD_PLACEMENT, NOT_CONNECTED,
+     * or INVALID_WORD) explaining why not. Unlike verifyLegality, never throws an exception.
+     */
+    public int checkLegality(int row, int column, int direction, char[] word, int length, List<Character> hand) {
+        return checkLegality(word, length, Location.of(row, column),
+                direction == ACROSS ? Location.HORIZONTAL : Location.VERTICAL, hand);
+    }
+
+    /**
+     * Returns the score for playing word[0], ..., word[length - 1] at row, column in direction (ACROSS or DOWN) from
+     * hand, or -1 if this would not be legal. Unlike verifyLegality, never throws an exception.
+     */
+    public int tryScore(int row, int column, int direction, char[] word, int length, List<Character> hand) {
+        Location location = Location.of(row, column);
+        Location d = direction == ACROSS ? Location.HORIZONTAL : Location.VERTICAL;
+        if (checkLegality(word, length, location, d, hand) != LEGAL) {
+            return -1;
+        }
+        return score(word, length, location, d);
+    }
+
+    /** Returns the result code for playing word[0], ..., word[length - 1] at location in direction from hand. */
+    private int checkLegality(char[] word, int length, Location location, Location direction, List<Character> hand) {
+        if (length < 2) {
+            return TOO_SHORT;
+        }
+        boolean tilePlayed = false;
+        for (int i = 0; i < length; i++) {
+            tilePlayed |= word[i] != ' ';
         }
-        if (!canBePlacedOnBoard(word, location, direction)) {
-            throw new IllegalMoveException("Board placement incorrect (gaps, overlapping tiles, edge of board).");
+        if (!tilePlayed) {
+            return NO_TILES_PLAYED;
         }
-        if (!wouldBeConnected(word, location, direction)) {
-            throw new IllegalMoveException("Board placement incorrect (gaps, overlapping tiles, edge of board).");
+        if (!canBeDrawnFromHand(word, length, hand)) {
+            return NOT_IN_HAND;
         }
-        if (!wouldCreateOnlyLegalWords(word, location, direction)) {
-            throw new IllegalMoveException("Invalid word created.");
+        if (!canBePlacedOnBoard(word, length, location, direction)) {
+            return BAD_PLACEMENT;
         }
+        if (!wouldBeConnected(word, length, location, direction)) {
+            return NOT_CONNECTED;
+        }
+        if (!wouldCreateOnlyLegalWords(word, length, location, direction)) {
+            return INVALID_WORD;
+        }
+        return LEGAL;
     }
 
     /**
      * Plays word at location in direction from hand. Also refills hand from bag, toggles the current player, and
      * resolves the end of the game if applicable.
      *
+     * @param hand One of this Board's hands (see getHand).
      * @throws IllegalMoveException if the move is illegal.
+     * @throws IllegalArgumentException if hand is not one of this Board's hands.
      */
-    public void play(String word, Location location, Location direction, ArrayList<Character> hand)
+    public void play(String word, Location location, Location direction, TileRack hand)
             throws IllegalMoveException {
+        int player = playerHolding(hand);
         verifyLegality(word, location, direction, hand);
-        scores[currentPlayer] += score(word, location, direction);
-        placeWord(word, location, direction);
-        removeTiles(word, hand);
-        deal(hand, 7 - hand.size());
-        currentPlayer = 1 - currentPlayer;
-        numberOfPasses = 0;
-        if (gameIsOver()) {
-            scoreUnplayedTiles();
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        int before = scores[player];
+        char[] tiles = word.toCharArray();
+        playTiles(tiles, tiles.length, location, direction, player);
+        if (event.shouldCommit()) {
+            event.player = player;
+            event.word = word;
+            for (char tile : tiles) {
+                if (TileRack.kindOf(tile) >= 0) {
+                    event.tilesPlayed++;
+                }
+            }
+            event.scoreDelta = scores[player] - before;
+            event.commit();
         }
     }
 
@@ -486,33 +1080,281 @@ public class Board {
      * Exchanges 0 or more tiles from hand with the bag. Also toggles the current player and resolves the end of the
      * game if applicable.
      *
+     * @param hand One of this Board's hands (see getHand).
      * @param tilesToExchange An array of 7 booleans indicating which tiles to exchange.
+     * @throws IllegalArgumentException if hand is not one of this Board's hands.
+     * @throws IllegalStateException if the game is over.
      */
-    public void exchange(ArrayList<Character> hand, boolean[] tilesToExchange) {
-        String removed = "";
-        for (int i = 0; i < hand.size(); i++) {
-            if (tilesToExchange[i]) {
-                removed += hand.get(i);
+    public void exchange(TileRack hand, boolean[] tilesToExchange) {
+        int player = playerHolding(hand);
+        checkGameNotOver();
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        int before = scores[player];
+        if (event.isEnabled()) {
+            for (int i = 0; i < Math.min(tilesToExchange.length, hand.size()); i++) {
+                if (tilesToExchange[i]) {
+                    event.tilesExchanged++;
+                }
             }
         }
-        String dumped = removeTiles(removed, hand);
-        deal(hand, 7 - hand.size());
-        // Return dumped letters to bag
-        for (char c : dumped.toCharArray()) {
-            bag.add(c);
-        }
-        Collections.shuffle(bag);
-        // If there weren't enough letters in bag, some dumped letters may return to hand
-        deal(hand, 7 - hand.size());
-        currentPlayer = 1 - currentPlayer;
-        numberOfPasses++;
+        exchangeTiles(player, tilesToExchange);
+        if (event.shouldCommit()) {
+            event.player = player;
+            event.scoreDelta = scores[player] - before;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the number of the player whose hand is hand.
+     *
+     * @throws IllegalArgumentException if hand is not one of this Board's hands.
+     */
+    private int playerHolding(TileRack hand) {
+        if (hand == hands[0]) {
+            return 0;
+        }
+        if (hand == hands[1]) {
+            return 1;
+        }
+        throw new IllegalArgumentException("Not a hand on this Board; use getHand");
+    }
+
+    /**
+     * Plays word[0], ..., word[length - 1] at location in direction from player's hand, without checking legality,
+     * then refills the hand, toggles the current player, and resolves the end of the game if applicable.
+     */
+    private void playTiles(char[] word, int length, Location location, Location direction, int player) {
+        setScore(currentPlayer, scores[currentPlayer] + score(word, length, location, direction));
+        placeWord(word, length, location, direction);
+        TileRack hand = hands[player];
+        for (int i = 0; i < length; i++) {
+            int kind = TileRack.kindOf(word[i]);
+            if (kind >= 0) {
+                char tile = TileRack.tileAt(kind);
+                int position = hand.positionOf(tile);
+                removeFromHand(player, position);
+                record(UNDO_RACK_REMOVE, player, position << 16 | tile);
+            }
+        }
+        draw(player, 7 - hand.size());
+        endTurn(0);
+    }
+
+    /**
+     * Exchanges the tiles in player's hand indicated by tilesToExchange with the bag, then toggles the current player
+     * and resolves the end of the game if applicable.
+     */
+    private void exchangeTiles(int player, boolean[] tilesToExchange) {
+        TileRack hand = hands[player];
+        if (exchanged.length < hand.size()) {
+            exchanged = new char[hand.size()];
+        }
+        int count = 0;
+        for (int i = hand.size() - 1; i >= 0; i--) {
+            if (i < tilesToExchange.length && tilesToExchange[i]) {
+                char tile = removeFromHand(player, i);
+                record(UNDO_RACK_REMOVE, player, i << 16 | tile);
+                exchanged[count++] = tile;
+            }
+        }
+        draw(player, 7 - hand.size());
+        // Return exchanged tiles to bag; there is no need to shuffle, as draws are random
+        for (int i = 0; i < count; i++) {
+            bag.add(exchanged[i]);
+            record(UNDO_BAG_ADD, 0, 0);
+        }
+        // If there weren't enough letters in bag, some exchanged letters may return to hand
+        draw(player, 7 - hand.size());
+        endTurn(numberOfPasses + 1);
+    }
+
+    /**
+     * Throws an IllegalStateException if the game is over. After two passes in a row there is no third, so an
+     * exchange would leave the number of passes out of range.
+     */
+    private void checkGameNotOver() {
+        if (gameIsOver()) {
+            throw new IllegalStateException("The game is over");
+        }
+    }
+
+    /** Moves up to n tiles from the bag into player's hand. */
+    private void draw(int player, int n) {
+        for (int i = 0; i < n && !bag.isEmpty(); i++) {
+            int position = bag.randomPosition();
+            char tile = bag.remove(position);
+            record(UNDO_BAG_TAKE, position, tile);
+            addToHand(player, hands[player].size(), tile);
+            record(UNDO_RACK_ADD, player, 0);
+        }
+    }
+
+    /** Sets the number of passes, toggles the current player, and resolves the end of the game if applicable. */
+    private void endTurn(int passes) {
+        record(UNDO_PLAYER, 0, currentPlayer);
+        setCurrentPlayer(1 - currentPlayer);
+        record(UNDO_PASSES, 0, numberOfPasses);
+        setNumberOfPasses(passes);
         if (gameIsOver()) {
             scoreUnplayedTiles();
         }
     }
 
+    /** Sets the current player, updating the hash. Does not record an undo journal entry. */
+    private void setCurrentPlayer(int player) {
+        if (player != currentPlayer) {
+            hash ^= PLAYER_KEY;
+            currentPlayer = player;
+        }
+    }
+
+    /** Sets the number of passes, updating the hash. Does not record an undo journal entry. */
+    private void setNumberOfPasses(int passes) {
+        hash ^= PASS_KEYS[numberOfPasses] ^ PASS_KEYS[passes];
+        numberOfPasses = passes;
+    }
+
+    /** Inserts tile at position in player's hand, updating the hash. Does not record an undo journal entry. */
+    private void addToHand(int player, int position, char tile) {
+        int kind = TileRack.kindOf(tile);
+        handHashes[player] ^= HAND_KEYS[player][kind][hands[player].count(kind)];
+        hands[player].add(position, tile);
+    }
+
+    /**
+     * Removes and returns the tile at position in player's hand, updating the hash. Does not record an undo journal
+     * entry.
+     */
+    private char removeFromHand(int player, int position) {
+        char tile = hands[player].remove(position);
+        int kind = TileRack.kindOf(tile);
+        handHashes[player] ^= HAND_KEYS[player][kind][hands[player].count(kind)];
+        return tile;
+    }
+
+    /** Sets player's score. */
+    private void setScore(int player, int score) {
+        record(UNDO_SCORE, player, scores[player]);
+        scores[player] = score;
+    }
+
+    /**
+     * Plays word[0], ..., word[length - 1] at row, column in direction (ACROSS or DOWN) for the current player,
+     * exactly as play would but without checking legality. The move, including the tiles drawn and any end-of-game
+     * scoring, can be retracted with unmakeMove. Moves may be nested, so a search can make and unmake moves to any
+     * depth without copying the Board; once the journal has grown to the deepest line searched, this allocates
+     * nothing.
+     */
+    public void makeMove(int row, int column, int direction, char[] word, int length) {
+        beginMove();
+        playTiles(word, length, Location.of(row, column),
+                direction == ACROSS ? Location.HORIZONTAL : Location.VERTICAL, currentPlayer);
+    }
+
+    /**
+     * Exchanges the current player's tiles indicated by tilesToExchange (all false to pass), exactly as exchange
+     * would. The move can be retracted with unmakeMove.
+     *
+     * @throws IllegalStateException if the game is over.
+     */
+    public void makeExchange(boolean[] tilesToExchange) {
+        checkGameNotOver();
+        beginMove();
+        exchangeTiles(currentPlayer, tilesToExchange);
+    }
+
+    /**
+     * Retracts the most recent move made by makeMove or makeExchange (and not yet retracted), restoring the board,
+     * hands, bag, scores, current player, and number of passes. (The bag's random number generator is not rewound,
+     * so the same move made again may draw different tiles.)
+     *
+     * @throws IllegalStateException if there is no such move.
+     */
+    public void unmakeMove() {
+        if (depth == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        int start = frames[--depth];
+        while (journalSize > start) {
+            journalSize -= 3;
+            int kind = journal[journalSize];
+            int a = journal[journalSize + 1];
+            int b = journal[journalSize + 2];
+            switch (kind) {
+                case UNDO_TILE:
+                    clearSquare(a);
+                    break;
+                case UNDO_CROSS_CHECK + ACROSS:
+                case UNDO_CROSS_CHECK + DOWN:
+                    crossChecks[kind - UNDO_CROSS_CHECK][a] = b;
+                    break;
+                case UNDO_CROSS_SCORE + ACROSS:
+                case UNDO_CROSS_SCORE + DOWN:
+                    crossScores[kind - UNDO_CROSS_SCORE][a] = b;
+                    break;
+                case UNDO_ANCHOR:
+                    anchors[a >> 6] ^= 1L << a;
+                    break;
+                case UNDO_SCORE:
+                    scores[a] = b;
+                    break;
+                case UNDO_PLAYER:
+                    setCurrentPlayer(b);
+                    break;
+                case UNDO_PASSES:
+                    setNumberOfPasses(b);
+                    break;
+                case UNDO_RACK_REMOVE:
+                    addToHand(a, b >> 16, (char) (b & 0xFFFF));
+                    break;
+                case UNDO_RACK_ADD:
+                    removeFromHand(a, hands[a].size() - 1);
+                    break;
+                case UNDO_BAG_TAKE:
+                    bag.restore((char) b, a);
+                    break;
+                case UNDO_BAG_ADD:
+                    bag.removeLast();
+                    break;
+                default:
+                    throw new IllegalStateException("Corrupt undo journal");
+            }
+        }
+    }
+
+    /** Returns the number of moves made by makeMove or makeExchange and not yet retracted. */
+    public int getMoveDepth() {
+        return depth;
+    }
+
+    /** Starts recording a new move in the undo journal. */
+    private void beginMove() {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        frames[depth++] = journalSize;
+    }
+
+    /** Records an undo journal entry, if a move made by makeMove is outstanding. */
+    private void record(int kind, int a, int b) {
+        if (depth == 0) {
+            return;
+        }
+        if (journalSize + 3 > journal.length) {
+            journal = Arrays.copyOf(journal, journal.length * 2);
+        }
+        journal[journalSize++] = kind;
+        journal[journalSize++] = a;
+        journal[journalSize++] = b;
+    }
+
     /** Removes the tiles used in word from hand and returns them in a new String. */
-    public String removeTiles(String word, ArrayList<Character> hand) {
+    public String removeTiles(String word, List<Character> hand) {
+        if (hand instanceof TileRack) {
+            return ((TileRack) hand).removeTiles(word);
+        }
         String result = "";
         for (Character c : word.toCharArray()) {
             if (c >= 'A' && c <= 'Z') {
@@ -524,6 +1366,11 @@ public class Board {
         return result;
     }
 
+    /** Returns the number of consecutive tile exchange turns (including passes) just taken; 2 ends the game. */
+    public int getNumberOfPasses() {
+        return numberOfPasses;
+    }
+
     /** Returns the current player number (0 or 1). */
     public int getCurrentPlayer() {
         return currentPlayer;
@@ -538,15 +1385,16 @@ public class Board {
     private void scoreUnplayedTiles() {
         int[] values = new int[2];
         for (int i = 0; i < hands.length; i++) {
-            for (char c : hands[i]) {
-                values[i] += TILE_VALUES.get(c);
+            for (int kind = 0; kind < TileRack.KINDS; kind++) {
+                values[i] += hands[i].count(kind) * VALUES[TileRack.tileAt(kind)];
             }
         }
         for (int i = 0; i < hands.length; i++) {
-            scores[i] -= values[i]; // Lose value of own letters
+            int score = scores[i] - values[i]; // Lose value of own letters
             if (hands[i].isEmpty()) {
-                scores[i] += values[1 - i]; // Gain value of opponent's letters
+                score += values[1 - i]; // Gain value of opponent's letters
             }
+            setScore(i, score);
         }
     }
 
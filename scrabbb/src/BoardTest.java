@@ -1,7 +1,16 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,8 +23,8 @@ public class BoardTest {
         board = new Board();
     }
 
-    /** Returns the characters in s as an ArrayList of Characters. */
-    private ArrayList<Character> asCharList(String s) {
+    /** Returns the characters in s as an ArrayList of Characters. Also used by other tests. */
+    static ArrayList<Character> asCharList(String s) {
         ArrayList<Character> result = new ArrayList<>();
         for (char c : s.toCharArray()) {
             result.add(c);
@@ -28,6 +37,24 @@ public class BoardTest {
         assertArrayEquals(Board.LAYOUT, board.toString().split("\n"));
     }
 
+    @Test
+    public void tileValuesAgreeWithReadOnlyMap() {
+        for (char c : "abcdefghijklmnopqrstuvwxyzAZ_".toCharArray()) {
+            assertEquals((int) Board.TILE_VALUES.get(c), Board.getValue(c));
+        }
+        assertEquals(10, Board.getValue('q'));
+        assertEquals(0, Board.getValue('Q'));
+        assertThrows(UnsupportedOperationException.class, () -> Board.TILE_VALUES.put('q', 1));
+    }
+
+    @Test
+    public void warmedUpLexiconIsTheOneUsed() {
+        Board.warmUpLexicon();
+        Lexicon lexicon = Board.getLexicon();
+        assertTrue(lexicon.contains("horn"));
+        assertSame(lexicon, Board.getLexicon());
+    }
+
     @Test
     public void validLettersCanBePlayedFromHand() {
         assertTrue(board.canBeDrawnFromHand("cheese", asCharList("eecchse")));
@@ -77,6 +104,21 @@ public class BoardTest {
         assertFalse(board.canBePlacedOnBoard("beyond", new Location(2, 10), Location.HORIZONTAL));
     }
 
+    @Test
+    public void findsStartAndEndOfWord() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        assertEquals(Location.CENTER, board.findStartOfWord(new Location(7, 9), Location.HORIZONTAL));
+        assertEquals(new Location(7, 10), board.findEndOfWord(new Location(7, 8), Location.HORIZONTAL));
+        assertEquals(new Location(7, 6), board.findStartOfWord(new Location(7, 6), Location.HORIZONTAL));
+    }
+
+    @Test
+    public void premiumIsRememberedUnderTile() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        assertEquals('h', board.getSquare(Location.CENTER));
+        assertEquals(Board.DOUBLE_WORD_SCORE, Board.getPremium(7, 7));
+    }
+
     @Test
     public void initialWordCountsAsConnected() {
         assertTrue(board.wouldBeConnected("horn", new Location(7, 5), Location.HORIZONTAL));
@@ -122,6 +164,34 @@ public class BoardTest {
         assertFalse(board.wouldCreateOnlyLegalWords("and", new Location(6, 7), Location.HORIZONTAL));
     }
 
+    @Test
+    public void onlyCenterIsAnchorOnEmptyBoard() {
+        assertTrue(board.isAnchor(7, 7));
+        assertFalse(board.isAnchor(7, 8));
+    }
+
+    @Test
+    public void placingWordUpdatesAnchors() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        assertFalse(board.isAnchor(7, 7));
+        assertTrue(board.isAnchor(7, 6));
+        assertTrue(board.isAnchor(6, 8));
+        assertTrue(board.isAnchor(7, 11));
+        assertFalse(board.isAnchor(5, 8));
+    }
+
+    @Test
+    public void placingWordUpdatesCrossChecks() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        int belowN = board.getCrossCheck(Board.ACROSS, 8, 10);
+        assertTrue((belowN & (1 << ('o' - 'a'))) != 0); // no
+        assertFalse((belowN & (1 << ('z' - 'a'))) != 0);
+        assertEquals(1 << ('s' - 'a'), board.getCrossCheck(Board.DOWN, 7, 11) & (1 << ('s' - 'a'))); // horns
+        assertEquals(0, board.getCrossCheck(Board.DOWN, 7, 11) & (1 << ('x' - 'a')));
+        assertEquals(Lexicon.ALL_LETTERS, board.getCrossCheck(Board.ACROSS, 7, 11));
+        assertEquals(7, board.getCrossScore(Board.DOWN, 7, 11));
+    }
+
     @Test
     public void scoresSingleInitialWord() {
         assertEquals(14, board.score("horn", Location.CENTER, Location.HORIZONTAL));
@@ -149,6 +219,18 @@ public class BoardTest {
         assertEquals(18, board.score("Fi ally", new Location(5, 10), Location.VERTICAL));
     }
 
+    @Test
+    public void scoresCrossWordBelowSingleTile() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        // "hi" across plus "hi" down from the h of horn
+        assertEquals(9 + 5, board.score("hi", new Location(8, 6), Location.HORIZONTAL));
+    }
+
+    @Test
+    public void doesNotScoreLoneTileOnEdgeAsCrossWord() {
+        assertEquals(15, board.score("ah", new Location(14, 6), Location.HORIZONTAL));
+    }
+
     @Test
     public void verifyLegalityRejectsOneLetterWord() {
         ArrayList<Character> hand = new ArrayList<>();
@@ -224,6 +306,14 @@ public class BoardTest {
         assertThrows(IllegalMoveException.class, () -> board.verifyLegality("drowzEe", new Location(6, 7), Location.VERTICAL, hand));
     }
 
+    @Test
+    public void verifyLegalityRejectsWordWithoutNewTiles() {
+        ArrayList<Character> hand = new ArrayList<>();
+        hand.add('a');
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        assertThrows(IllegalMoveException.class, () -> board.verifyLegality("    ", Location.CENTER, Location.HORIZONTAL, hand));
+    }
+
     @Test
     public void verifyLegalityAcceptsValidWords() throws IllegalMoveException {
         ArrayList<Character> hand = new ArrayList<>();
@@ -263,6 +353,160 @@ public class BoardTest {
         board.placeWord("Bit", new Location(10, 3), Location.HORIZONTAL);
     }
 
+    @Test
+    public void playAndExchangeRejectHandNotOnBoard() {
+        TileRack copy = new TileRack(board.getHand(0));
+        ScoredPlay play = new GateKeeper(board, 0).generateMoves().get(0);
+        List<Character> otherHand = new ArrayList<>(board.getHand(1));
+        assertThrows(IllegalArgumentException.class,
+                () -> board.play(play.getWord(), play.getLocation(), play.getDirection(), copy));
+        assertThrows(IllegalArgumentException.class, () -> board.exchange(copy, new boolean[7]));
+        assertEquals(0, board.getScore(0));
+        assertEquals(0, board.getScore(1));
+        assertEquals(0, board.getCurrentPlayer());
+        assertEquals(otherHand, new ArrayList<>(board.getHand(1)));
+    }
+
+    @Test
+    public void exchangeAfterGameOverIsRejected() {
+        board.exchange(board.getHand(0), new boolean[7]);
+        board.exchange(board.getHand(1), new boolean[7]);
+        assertTrue(board.gameIsOver());
+        long hash = board.getHash();
+        assertThrows(IllegalStateException.class, () -> board.exchange(board.getHand(0), new boolean[7]));
+        assertThrows(IllegalStateException.class, () -> board.makeExchange(new boolean[7]));
+        assertEquals(hash, board.getHash());
+        assertEquals(2, board.getNumberOfPasses());
+    }
+
+    @Test
+    public void checkLegalityExplainsIllegalPlays() {
+        ArrayList<Character> hand = asCharList("horns");
+        assertEquals(Board.TOO_SHORT, board.checkLegality(7, 7, Board.ACROSS, "h".toCharArray(), 1, hand));
+        assertEquals(Board.NOT_IN_HAND, board.checkLegality(7, 7, Board.ACROSS, "hornet".toCharArray(), 6, hand));
+        assertEquals(Board.BAD_PLACEMENT, board.checkLegality(7, 12, Board.ACROSS, "horns".toCharArray(), 5, hand));
+        assertEquals(Board.NOT_CONNECTED, board.checkLegality(0, 0, Board.DOWN, "horn".toCharArray(), 4, hand));
+        assertEquals(Board.INVALID_WORD, board.checkLegality(7, 7, Board.ACROSS, "hrons".toCharArray(), 5, hand));
+        assertEquals(Board.LEGAL, board.checkLegality(7, 7, Board.DOWN, "horns".toCharArray(), 5, hand));
+    }
+
+    @Test
+    public void tryScoreAgreesWithScoreOrReturnsMinusOne() {
+        ArrayList<Character> hand = asCharList("horn");
+        char[] word = "xhornx".toCharArray();
+        assertEquals(board.score("horn", new Location(7, 4), Location.HORIZONTAL),
+                board.tryScore(7, 4, Board.ACROSS, "horn".toCharArray(), 4, hand));
+        assertEquals(-1, board.tryScore(7, 4, Board.ACROSS, word, 4, hand));
+        board.placeWord("horn", new Location(7, 4), Location.HORIZONTAL);
+        hand = asCharList("fam");
+        assertEquals(board.score("fa m", new Location(5, 6), Location.VERTICAL),
+                board.tryScore(5, 6, Board.DOWN, "fa m".toCharArray(), 4, hand));
+        assertEquals(-1, board.tryScore(5, 6, Board.ACROSS, "fa m".toCharArray(), 4, hand));
+    }
+
+    /** Returns a description of everything about board that makeMove could change. */
+    private String describe(Board board) {
+        StringBuilder result = new StringBuilder(board.toString());
+        result.append(board.getHand(0)).append(board.getHand(1)).append(board.getBagSize());
+        result.append(' ').append(board.getScore(0)).append(' ').append(board.getScore(1));
+        result.append(' ').append(board.getCurrentPlayer()).append(' ').append(board.gameIsOver());
+        for (int r = 0; r < Board.WIDTH; r++) {
+            for (int c = 0; c < Board.WIDTH; c++) {
+                result.append(board.isAnchor(r, c) ? '*' : '.');
+                for (int d = Board.ACROSS; d <= Board.DOWN; d++) {
+                    result.append(board.getCrossCheck(d, r, c)).append(',').append(board.getCrossScore(d, r, c));
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void unmakeMoveRestoresExactState() {
+        MoveGenerator generator = new MoveGenerator(Board.getLexicon());
+        ArrayList<String> before = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            before.add(describe(board));
+            ArrayList<ScoredPlay> plays = generator.generate(board, board.getHand(board.getCurrentPlayer()));
+            if (plays.isEmpty()) {
+                board.makeExchange(new boolean[] {true, true, false, false, false, false, true});
+            } else {
+                ScoredPlay play = plays.get(0);
+                String word = play.getWord();
+                int score = board.getScore(board.getCurrentPlayer());
+                board.makeMove(play.getLocation().getRow(), play.getLocation().getColumn(),
+                        Board.directionIndex(play.getDirection()), word.toCharArray(), word.length());
+                assertEquals(score + play.getScore(), board.getScore(1 - board.getCurrentPlayer()));
+            }
+        }
+        assertEquals(6, board.getMoveDepth());
+        for (int i = 5; i >= 0; i--) {
+            board.unmakeMove();
+            assertEquals(before.get(i), describe(board));
+        }
+        assertThrows(IllegalStateException.class, () -> board.unmakeMove());
+    }
+
+    @Test
+    public void unmakeMoveUndoesEndOfGameScoring() {
+        board.placeWord("horn", new Location(7, 4), Location.HORIZONTAL);
+        String before = describe(board);
+        board.makeExchange(new boolean[7]);
+        board.makeExchange(new boolean[7]);
+        assertTrue(board.gameIsOver());
+        assertTrue(board.getScore(0) < 0);
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(before, describe(board));
+    }
+
+    @Test
+    public void sampleKeepsVisibleStateAndRedealsHiddenHand() {
+        board = new Board(new Random(1));
+        board.placeWord("horn", new Location(7, 4), Location.HORIZONTAL);
+        String hand = board.getHand(0).toString();
+        Board copy = board.sample(0, new Random(2));
+        assertEquals(board.toString(), copy.toString());
+        assertEquals(hand, copy.getHand(0).toString());
+        assertEquals(7, copy.getHand(1).size());
+        assertEquals(board.getBagSize(), copy.getBagSize());
+        // The copy is independent of the original
+        copy.makeExchange(new boolean[] {true, true, true, true, true, true, true});
+        assertEquals(hand, board.getHand(0).toString());
+        assertEquals(0, board.getCurrentPlayer());
+    }
+
+    @Test
+    public void hashIsRestoredByUnmakeMove() {
+        long hash = board.getHash();
+        board.makeExchange(new boolean[] {true, false, true, false, false, false, false});
+        assertNotEquals(hash, board.getHash());
+        board.unmakeMove();
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    public void hashDependsOnPositionNotHistory() {
+        board = new Board(new Random(7));
+        Board other = new Board(new Random(7));
+        board.placeWord("horn", new Location(7, 4), Location.HORIZONTAL);
+        board.placeWord("farm", new Location(0, 0), Location.VERTICAL);
+        other.placeWord("farm", new Location(0, 0), Location.VERTICAL);
+        other.placeWord("horn", new Location(7, 4), Location.HORIZONTAL);
+        assertEquals(board.getHash(), other.getHash());
+        assertNotEquals(board.getHash(), new Board(new Random(7)).getHash());
+    }
+
+    @Test
+    public void playerHashIgnoresOpponentsHand() {
+        Board a = board.sample(0, new Random(1));
+        Board b = board.sample(0, new Random(2));
+        assertNotEquals(a.getHand(1).toString(), b.getHand(1).toString());
+        assertEquals(board.getHash(0), a.getHash(0));
+        assertEquals(a.getHash(0), b.getHash(0));
+        assertNotEquals(a.getHash(), b.getHash());
+    }
+
     @Test
     public void removeTilesRemovesCorrectTiles() {
         ArrayList<Character> hand = new ArrayList<>();
@@ -274,4 +518,33 @@ public class BoardTest {
         assertEquals("[c, _, b, d, a]", hand.toString());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void playIsRecordedByFlightRecorder() throws IllegalMoveException, IOException {
+        Board board = new Board(new Random(7));
+        ScoredPlay first = new GateKeeper(board, 0).generateMoves().get(0);
+        Path file = Files.createTempFile("moves", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(MoveEvent.class);
+            recording.start();
+            first.play(board, 0);
+            board.exchange(board.getHand(1), new boolean[] {true, true, false, false, false, false, false});
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(2, events.size());
+        RecordedEvent play = events.get(0);
+        assertEquals(first.getWord(), play.getString("word"));
+        assertEquals(0, play.getInt("player"));
+        assertEquals(first.getWord().length(), play.getInt("tilesPlayed"));
+        assertEquals(board.getScore(0), play.getInt("scoreDelta"));
+        RecordedEvent exchange = events.get(1);
+        assertEquals(1, exchange.getInt("player"));
+        assertEquals(2, exchange.getInt("tilesExchanged"));
+        assertEquals(0, exchange.getInt("scoreDelta"));
+    }
+
+}
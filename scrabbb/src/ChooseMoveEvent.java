@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Java Flight Recorder event for one call to ScrabbleAI.chooseMove in a tournament. */
+@Name("scrabble.ChooseMove")
+@Label("Choose Move")
+@Category("Scrabble")
+@Description("A ScrabbleAI choosing a move")
+public class ChooseMoveEvent extends Event {
+
+    @Label("AI")
+    String ai;
+
+    @Label("Player")
+    @Description("The AI's player number (0 or 1)")
+    int player;
+
+    @Label("Candidate Count")
+    @Description("Plays the AI generated or checked through its GateKeeper")
+    long candidates;
+
+    @Label("Tiles in Bag")
+    int bagSize;
+
+}
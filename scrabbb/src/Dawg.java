@@ -0,0 +1,335 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Directed acyclic word graph: the minimal automaton accepting a set of lower-case words. Immutable.
+ *
+ * Nodes are stored in primitive arrays rather than as objects. Node 0 is the root. The outgoing edges of a node are
+ * stored contiguously in targets, in alphabetical order, so the edge for a letter is found by counting the letters
+ * below it in the node's letter mask.
+ *
+ * The arrays are IntBuffers so that a Dawg can be used directly from a memory-mapped file (see writeTo and
+ * readFrom) without being copied onto the heap.
+ *
+ * @see Lexicon
+ */
+public class Dawg {
+
+    /** Bit set in a node's flags if the path leading to it spells a word. Bits 0-25 are the outgoing letters. */
+    private static final int TERMINAL = 1 << 26;
+
+    /** For each node, its outgoing letters (bits 0-25) and TERMINAL bit. */
+    private final IntBuffer flags;
+
+    /** For each node, the index in targets of its first outgoing edge. */
+    private final IntBuffer firstEdge;
+
+    /** Destination nodes of all edges, grouped by source node. */
+    private final IntBuffer targets;
+
+    /**
+     * Builds the minimal Dawg accepting words. Words need not be sorted and may contain duplicates.
+     *
+     * @throws IllegalArgumentException if any word contains a character other than a lower-case letter.
+     */
+    public Dawg(String[] words) {
+        String[] sorted = words.clone();
+        Arrays.sort(sorted);
+        Builder builder = new Builder();
+        for (String word : sorted) {
+            builder.add(word);
+        }
+        State[] states = builder.finish();
+        int[] flags = new int[states.length];
+        int[] firstEdge = new int[states.length];
+        int edges = 0;
+        for (State state : states) {
+            edges += Integer.bitCount(state.letters);
+        }
+        int[] targets = new int[edges];
+        int edge = 0;
+        for (int i = 0; i < states.length; i++) {
+            State state = states[i];
+            flags[i] = state.letters | (state.terminal ? TERMINAL : 0);
+            firstEdge[i] = edge;
+            for (int letter = 0; letter < 26; letter++) {
+                if (state.next[letter] != null) {
+                    targets[edge++] = state.next[letter].index;
+                }
+            }
+        }
+        this.flags = IntBuffer.wrap(flags);
+        this.firstEdge = IntBuffer.wrap(firstEdge);
+        this.targets = IntBuffer.wrap(targets);
+    }
+
+    private Dawg(IntBuffer flags, IntBuffer firstEdge, IntBuffer targets) {
+        this.flags = flags;
+        this.firstEdge = firstEdge;
+        this.targets = targets;
+    }
+
+    /** Returns the number of bytes writeTo will write. */
+    public int byteSize() {
+        return 4 * (2 + 2 * size() + edgeCount());
+    }
+
+    /**
+     * Writes this Dawg to buffer, starting at its position, in little-endian order. The position is advanced past
+     * the Dawg.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(size());
+        buffer.putInt(edgeCount());
+        for (IntBuffer ints : new IntBuffer[] {flags, firstEdge, targets}) {
+            for (int i = 0; i < ints.limit(); i++) {
+                buffer.putInt(ints.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns a Dawg backed by (not copied from) the bytes written by writeTo starting at buffer's position, which
+     * is advanced past them.
+     *
+     * @throws IllegalArgumentException if buffer is too short to hold the Dawg its header describes.
+     */
+    public static Dawg readFrom(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int nodes = buffer.getInt();
+        int edges = buffer.getInt();
+        if (nodes <= 0 || edges < 0 || (long) 4 * (2L * nodes + edges) > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated or corrupt Dawg");
+        }
+        return new Dawg(slice(buffer, nodes), slice(buffer, nodes), slice(buffer, edges));
+    }
+
+    /** Returns a view of the next n ints in buffer, advancing its position past them. */
+    private static IntBuffer slice(ByteBuffer buffer, int n) {
+        ByteBuffer bytes = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        bytes.limit(4 * n);
+        buffer.position(buffer.position() + 4 * n);
+        return bytes.asIntBuffer();
+    }
+
+    /** Returns the index (0-25) of letter, ignoring case, or -1 if it is not a letter. */
+    public static int indexOf(char letter) {
+        if (letter >= 'a' && letter <= 'z') {
+            return letter - 'a';
+        }
+        if (letter >= 'A' && letter <= 'Z') {
+            return letter - 'A';
+        }
+        return -1;
+    }
+
+    /** Returns the root node. */
+    public int root() {
+        return 0;
+    }
+
+    /** Returns the node reached from node by the letter with index letter (0-25), or Lexicon.NO_NODE. */
+    public int child(int node, int letter) {
+        int letters = flags.get(node);
+        if (letter < 0 || (letters & (1 << letter)) == 0) {
+            return Lexicon.NO_NODE;
+        }
+        return targets.get(firstEdge.get(node) + Integer.bitCount(letters & ((1 << letter) - 1)));
+    }
+
+    /** Returns the mask of letters leading out of node. */
+    public int childLetters(int node) {
+        return flags.get(node) & Lexicon.ALL_LETTERS;
+    }
+
+    /** Returns true if the path to node spells a word. */
+    public boolean isWord(int node) {
+        return (flags.get(node) & TERMINAL) != 0;
+    }
+
+    /** Follows the letters of s from node, returning the node reached or Lexicon.NO_NODE. */
+    public int walk(int node, CharSequence s) {
+        for (int i = 0; i < s.length() && node != Lexicon.NO_NODE; i++) {
+            node = child(node, indexOf(s.charAt(i)));
+        }
+        return node;
+    }
+
+    /** Follows the letters of s from node in reverse order, returning the node reached or Lexicon.NO_NODE. */
+    public int walkBackward(int node, CharSequence s) {
+        for (int i = s.length() - 1; i >= 0 && node != Lexicon.NO_NODE; i--) {
+            node = child(node, indexOf(s.charAt(i)));
+        }
+        return node;
+    }
+
+    /** Follows letters[start], ..., letters[start + length - 1] from node, returning the node reached or NO_NODE. */
+    public int walk(int node, char[] letters, int start, int length) {
+        for (int i = start; i < start + length && node != Lexicon.NO_NODE; i++) {
+            node = child(node, indexOf(letters[i]));
+        }
+        return node;
+    }
+
+    /** Returns the number of nodes in this Dawg. */
+    public int size() {
+        return flags.limit();
+    }
+
+    /** Returns the number of edges in this Dawg. */
+    public int edgeCount() {
+        return targets.limit();
+    }
+
+    /** A node under construction. */
+    private static class State {
+
+        /** Children, indexed by letter. */
+        private final State[] next = new State[26];
+
+        /** Mask of letters with non-null children. */
+        private int letters;
+
+        /** True if the path to this State spells a word. */
+        private boolean terminal;
+
+        /** Order in which this State was registered, used for hashing. */
+        private int id = -1;
+
+        /** Position of this State in the finished arrays. */
+        private int index = -1;
+
+        /** Returns the highest letter leading out of this State. */
+        private int lastLetter() {
+            return 31 - Integer.numberOfLeadingZeros(letters);
+        }
+
+        // Two States are equivalent if they agree on terminal and have the same (already registered) children.
+        // This is only used once all children have been registered.
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State that = (State) o;
+            if (terminal != that.terminal || letters != that.letters) {
+                return false;
+            }
+            for (int rest = letters; rest != 0; rest &= rest - 1) {
+                int letter = Integer.numberOfTrailingZeros(rest);
+                if (next[letter] != that.next[letter]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = terminal ? 1 : 0;
+            for (int rest = letters; rest != 0; rest &= rest - 1) {
+                int letter = Integer.numberOfTrailingZeros(rest);
+                result = 31 * (31 * result + letter) + next[letter].id;
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Builds a minimal automaton from sorted words, merging equivalent suffixes as it goes (Daciuk et al.,
+     * "Incremental Construction of Minimal Acyclic Finite-State Automata").
+     */
+    private static class Builder {
+
+        private final State root = new State();
+
+        /** States already known to be in their final form, keyed by themselves. */
+        private final HashMap<State, State> register = new HashMap<>();
+
+        /** The last word added. */
+        private String previous = "";
+
+        /** Adds word, which must not come before the previous word alphabetically. */
+        private void add(String word) {
+            if (word.isEmpty() || word.equals(previous)) {
+                return;
+            }
+            int common = 0;
+            while (common < word.length() && common < previous.length()
+                    && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+            State last = root;
+            for (int i = 0; i < common; i++) {
+                last = last.next[word.charAt(i) - 'a'];
+            }
+            if (last.letters != 0) {
+                replaceOrRegister(last);
+            }
+            for (int i = common; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c < 'a' || c > 'z') {
+                    throw new IllegalArgumentException("Not a lower-case word: " + word);
+                }
+                State state = new State();
+                last.next[c - 'a'] = state;
+                last.letters |= 1 << (c - 'a');
+                last = state;
+            }
+            last.terminal = true;
+            previous = word;
+        }
+
+        /** Minimizes the most recently added branch below state. */
+        private void replaceOrRegister(State state) {
+            int letter = state.lastLetter();
+            State child = state.next[letter];
+            if (child.letters != 0) {
+                replaceOrRegister(child);
+            }
+            State existing = register.get(child);
+            if (existing != null) {
+                state.next[letter] = existing;
+            } else {
+                child.id = register.size();
+                register.put(child, child);
+            }
+        }
+
+        /** Minimizes the remaining branch and returns all States, root first, with their indices set. */
+        private State[] finish() {
+            if (root.letters != 0) {
+                replaceOrRegister(root);
+            }
+            ArrayList<State> states = new ArrayList<>();
+            ArrayDeque<State> queue = new ArrayDeque<>();
+            root.index = 0;
+            states.add(root);
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                State state = queue.remove();
+                for (State child : state.next) {
+                    if (child != null && child.index < 0) {
+                        child.index = states.size();
+                        states.add(child);
+                        queue.add(child);
+                    }
+                }
+            }
+            return states.toArray(new State[0]);
+        }
+
+    }
+
+}
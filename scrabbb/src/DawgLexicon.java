@@ -0,0 +1,220 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lexicon backed by a pair of Dawgs: one accepting the words and one accepting the words spelled backward. The
+ * forward Dawg answers whole-word, prefix, and rightward extension queries; the backward one answers suffix and
+ * leftward extension queries. Nodes returned by root and child belong to the forward Dawg.
+ *
+ * A word list can be compiled ahead of time (see main) into a binary file next to it. load memory-maps that file
+ * instead of parsing the list, so starting up costs a page-in, and JVMs on the same host share the pages.
+ */
+public class DawgLexicon implements Lexicon {
+
+    /** First int of a compiled lexicon file ("DAWG" in ASCII). */
+    private static final int MAGIC = 0x44415747;
+
+    /** Format version of compiled lexicon files; bump this whenever the layout of Dawg.writeTo changes. */
+    private static final int VERSION = 1;
+
+    /** Accepts the words. */
+    private final Dawg forward;
+
+    /** Accepts the words spelled backward. */
+    private final Dawg backward;
+
+    /**
+     * @param words Lower-case words, in any order.
+     */
+    public DawgLexicon(String[] words) {
+        forward = new Dawg(words);
+        String[] reversed = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            reversed[i] = new StringBuilder(words[i]).reverse().toString();
+        }
+        backward = new Dawg(reversed);
+    }
+
+    private DawgLexicon(Dawg forward, Dawg backward) {
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+    /**
+     * Compiles the named word lists into binary lexicon files that load can map.
+     *
+     * @param args Word list files (one word per line), such as enable1.txt.
+     */
+    public static void main(String[] args) throws IOException {
+        for (String filename : args) {
+            compile(filename);
+            StdOut.println("Compiled " + filename + " to " + compiledName(filename));
+        }
+    }
+
+    /**
+     * Returns a DawgLexicon containing the words (one per line) in the named file. If a compiled form of the file
+     * (see compile) exists and is at least as new as the file, it is memory-mapped instead of parsing the file.
+     */
+    public static DawgLexicon load(String filename) {
+        DawgLexicon result = map(filename);
+        if (result != null) {
+            return result;
+        }
+        return new DawgLexicon(new In(filename).readAllLines());
+    }
+
+    /** Returns the name of the compiled form of the named word list: its name with .txt replaced by .dawg. */
+    public static String compiledName(String filename) {
+        if (filename.endsWith(".txt")) {
+            filename = filename.substring(0, filename.length() - ".txt".length());
+        }
+        return filename + ".dawg";
+    }
+
+    /** Writes the compiled form of the named word list to compiledName(filename), with writeAtomically. */
+    public static void compile(String filename) throws IOException {
+        DawgLexicon lexicon = new DawgLexicon(new In(filename).readAllLines());
+        ByteBuffer buffer = ByteBuffer.allocate(8 + lexicon.forward.byteSize() + lexicon.backward.byteSize())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        lexicon.forward.writeTo(buffer);
+        lexicon.backward.writeTo(buffer);
+        buffer.flip();
+        writeAtomically(buffer, Path.of(compiledName(filename)));
+    }
+
+    /**
+     * Writes the remaining bytes of buffer to the file target. The file is written under a temporary name and then
+     * moved into place, so a JVM loading it concurrently never sees it half-written. Also used by LeaveTable.
+     */
+    static void writeAtomically(ByteBuffer buffer, Path target) throws IOException {
+        target = target.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Returns a DawgLexicon backed by a memory map of the compiled form of the named word list, or null if that is
+     * missing, older than the word list, or unreadable.
+     */
+    private static DawgLexicon map(String filename) {
+        File text = new File(filename);
+        File compiled = new File(compiledName(filename));
+        if (!compiled.isFile() || (text.exists() && compiled.lastModified() < text.lastModified())) {
+            return null;
+        }
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(compiled.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            return new DawgLexicon(Dawg.readFrom(buffer), Dawg.readFrom(buffer));
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int node = forward.walk(forward.root(), word);
+        return node != NO_NODE && forward.isWord(node);
+    }
+
+    @Override
+    public boolean contains(char[] letters, int start, int length) {
+        int node = forward.walk(forward.root(), letters, start, length);
+        return node != NO_NODE && forward.isWord(node);
+    }
+
+    @Override
+    public boolean isPrefix(CharSequence prefix) {
+        return forward.walk(forward.root(), prefix) != NO_NODE;
+    }
+
+    @Override
+    public boolean isSuffix(CharSequence suffix) {
+        return backward.walkBackward(backward.root(), suffix) != NO_NODE;
+    }
+
+    @Override
+    public int extensionsAfter(CharSequence prefix) {
+        int node = forward.walk(forward.root(), prefix);
+        return node == NO_NODE ? 0 : forward.childLetters(node);
+    }
+
+    @Override
+    public int extensionsBefore(CharSequence suffix) {
+        int node = backward.walkBackward(backward.root(), suffix);
+        return node == NO_NODE ? 0 : backward.childLetters(node);
+    }
+
+    @Override
+    public int lettersBetween(CharSequence before, CharSequence after) {
+        int node = forward.walk(forward.root(), before);
+        if (node == NO_NODE) {
+            return 0;
+        }
+        int result = 0;
+        // Only letters that are also possible just before after need to be tried
+        int candidates = forward.childLetters(node) & extensionsBefore(after);
+        while (candidates != 0) {
+            int letter = Integer.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            int end = forward.walk(forward.child(node, letter), after);
+            if (end != NO_NODE && forward.isWord(end)) {
+                result |= 1 << letter;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int root() {
+        return forward.root();
+    }
+
+    @Override
+    public int child(int node, char letter) {
+        return forward.child(node, Dawg.indexOf(letter));
+    }
+
+    @Override
+    public int childLetters(int node) {
+        return forward.childLetters(node);
+    }
+
+    @Override
+    public boolean isWord(int node) {
+        return forward.isWord(node);
+    }
+
+    @Override
+    public String toString() {
+        return "DawgLexicon{" +
+                "forwardNodes=" + forward.size() +
+                ", backwardNodes=" + backward.size() +
+                '}';
+    }
+
+}
@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DawgLexiconTest {
+
+    private Lexicon lexicon;
+
+    @BeforeEach
+    public void setUp() {
+        lexicon = new DawgLexicon(new String[] {"horn", "horns", "thorn", "thorns", "born", "hot", "shot", "ho"});
+    }
+
+    /** Returns the mask for the letters in s. */
+    private int mask(String s) {
+        int result = 0;
+        for (char c : s.toCharArray()) {
+            result |= 1 << (c - 'a');
+        }
+        return result;
+    }
+
+    @Test
+    public void containsWordsAndNothingElse() {
+        assertTrue(lexicon.contains("horn"));
+        assertTrue(lexicon.contains("thorns"));
+        assertFalse(lexicon.contains("hor"));
+        assertFalse(lexicon.contains("horny"));
+        assertFalse(lexicon.contains(""));
+    }
+
+    @Test
+    public void ignoresCase() {
+        assertTrue(lexicon.contains("HoRn"));
+    }
+
+    @Test
+    public void rejectsNonLetters() {
+        assertFalse(lexicon.contains("ho n"));
+        assertFalse(lexicon.isPrefix("h_"));
+    }
+
+    @Test
+    public void containsSliceOfCharArray() {
+        char[] letters = "xthornx".toCharArray();
+        assertTrue(lexicon.contains(letters, 1, 5));
+        assertTrue(lexicon.contains(letters, 2, 4));
+        assertFalse(lexicon.contains(letters, 0, 5));
+    }
+
+    @Test
+    public void answersPrefixAndSuffixQueries() {
+        assertTrue(lexicon.isPrefix("tho"));
+        assertTrue(lexicon.isPrefix(""));
+        assertFalse(lexicon.isPrefix("ht"));
+        assertTrue(lexicon.isSuffix("orns"));
+        assertFalse(lexicon.isSuffix("hor"));
+    }
+
+    @Test
+    public void findsExtensionsInBothDirections() {
+        assertEquals(mask("rt"), lexicon.extensionsAfter("ho"));
+        assertEquals(mask("hb"), lexicon.extensionsBefore("orn"));
+        assertEquals(0, lexicon.extensionsAfter("thorns"));
+    }
+
+    @Test
+    public void findsLettersBetweenFragments() {
+        assertEquals(mask("t"), lexicon.lettersBetween("ho", ""));
+        assertEquals(mask("hb"), lexicon.lettersBetween("", "orn"));
+        assertEquals(mask("o"), lexicon.lettersBetween("th", "rn"));
+        assertEquals(0, lexicon.lettersBetween("q", ""));
+    }
+
+    @Test
+    public void canBeNavigatedOneLetterAtATime() {
+        int node = lexicon.root();
+        for (char c : "hor".toCharArray()) {
+            node = lexicon.child(node, c);
+        }
+        assertFalse(lexicon.isWord(node));
+        assertEquals(mask("n"), lexicon.childLetters(node));
+        node = lexicon.child(node, 'n');
+        assertTrue(lexicon.isWord(node));
+        assertEquals(Lexicon.NO_NODE, lexicon.child(node, 'y'));
+    }
+
+    @Test
+    public void loadsCompiledFormOfWordList() throws IOException {
+        Path directory = Files.createTempDirectory("lexicon");
+        Path words = directory.resolve("words.txt");
+        Files.write(words, List.of("horn", "horns", "thorn", "ho"));
+        DawgLexicon.compile(words.toString());
+        Path compiled = Path.of(DawgLexicon.compiledName(words.toString()));
+        assertEquals(directory.resolve("words.dawg"), compiled);
+        // Remove the word list, so load can only succeed by mapping the compiled file
+        Files.delete(words);
+        Lexicon loaded = DawgLexicon.load(words.toString());
+        assertTrue(loaded.contains("thorn"));
+        assertFalse(loaded.contains("thor"));
+        assertTrue(loaded.isSuffix("orns"));
+        assertEquals(mask("n"), loaded.lettersBetween("hor", "s"));
+        Files.delete(compiled);
+        Files.delete(directory);
+    }
+
+}
@@ -0,0 +1,410 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * AI that plays the endgame perfectly. Once the bag is empty, the opponent's hand is exactly the tiles this AI cannot
+ * see, so the rest of the game is a two-player game of perfect information. EndgameSolver searches it with negamax
+ * and alpha-beta pruning, by iterative deepening until the game tree is exhausted or the SearchBudget (by default,
+ * the time limit) is exhausted, and plays the move that maximizes the final score difference (including the
+ * end-of-game adjustments for unplayed tiles). While there are tiles in the bag, it defers to another ScrabbleAI.
+ *
+ * Positions already searched are remembered in a transposition table keyed by the Board's Zobrist hash (see
+ * Board.getHash), which covers the tiles on the board, both hands, the player to move, and the number of passes.
+ * Moves are tried best-first: the best move remembered from an earlier search of the same position, then the rest in
+ * decreasing order of score.
+ */
+public class EndgameSolver implements ScrabbleAI {
+
+    /** Exchanging no tiles, which is passing. */
+    private static final boolean[] PASS = new boolean[7];
+
+    /** Number of entries in the transposition table (a power of two). */
+    private static final int TABLE_SIZE = 1 << 20;
+
+    /** Search depth recorded for positions whose game tree was searched to the end. */
+    private static final int COMPLETE = 127;
+
+    // Kinds of bound stored in the transposition table
+
+    private static final byte EXACT = 0;
+
+    private static final byte LOWER = 1;
+
+    private static final byte UPPER = 2;
+
+    /** Chooses moves while there are tiles in the bag. */
+    private final ScrabbleAI midgame;
+
+    /** Maximum time spent searching per move, in milliseconds. */
+    private final long timeLimit;
+
+    /** The GateKeeper through which this EndgameSolver accesses the Board. */
+    private GateKeeper gateKeeper;
+
+    /** Finds the legal plays in each position searched; created when first needed. */
+    private MoveGenerator generator;
+
+    /** Moves available at each ply of the search. */
+    private Moves[] moves = new Moves[0];
+
+    // Transposition table, indexed by the low bits of the Zobrist key
+
+    private long[] tableKeys;
+
+    private int[] tableValues;
+
+    private byte[] tableDepths;
+
+    private byte[] tableBounds;
+
+    /** Index (in the position's Moves) of the best move found, or -1. */
+    private short[] tableMoves;
+
+    /** Copy of the position being searched. */
+    private Board board;
+
+    /** Limits the search for the current move. */
+    private SearchBudget budget;
+
+    /** Number of positions searched. */
+    private long nodes;
+
+    /** True if the search ran out of budget. */
+    private boolean aborted;
+
+    /** True if the search has stopped at the depth limit, rather than the end of the game, since this was cleared. */
+    private boolean hitHorizon;
+
+    /** Index of the best move at the root of the most recent search. */
+    private int rootMove;
+
+    /** Depth of the deepest search completed for the most recent move, or COMPLETE if the endgame was solved. */
+    private int depthReached;
+
+    /** Solves endgames for up to one second, deferring to an Incrementalist earlier in the game. */
+    public EndgameSolver() {
+        this(new Incrementalist(), 1000);
+    }
+
+    /**
+     * @param midgame Chooses moves while there are tiles in the bag.
+     * @param timeLimit Maximum time spent searching per move, in milliseconds, when chooseMove is not given a
+     *                  SearchBudget.
+     */
+    public EndgameSolver(ScrabbleAI midgame, long timeLimit) {
+        this.midgame = midgame;
+        this.timeLimit = timeLimit;
+    }
+
+    @Override
+    public void setGateKeeper(GateKeeper gateKeeper) {
+        this.gateKeeper = gateKeeper;
+        midgame.setGateKeeper(gateKeeper);
+    }
+
+    /**
+     * Returns the depth, in moves, of the deepest search completed while choosing the most recent move, or
+     * Integer.MAX_VALUE if the endgame was solved exactly.
+     */
+    public int getDepthReached() {
+        return depthReached == COMPLETE ? Integer.MAX_VALUE : depthReached;
+    }
+
+    @Override
+    public ScrabbleMove chooseMove() {
+        return chooseMove(new SearchBudget(timeLimit));
+    }
+
+    /** Searches until the endgame is solved or budget is exhausted. Passes budget on to the midgame AI. */
+    @Override
+    public ScrabbleMove chooseMove(SearchBudget budget) {
+        if (gateKeeper.getBagSize() > 0) {
+            return midgame.chooseMove(budget);
+        }
+        if (tableKeys == null) {
+            generator = new MoveGenerator(Board.getLexicon());
+            tableKeys = new long[TABLE_SIZE];
+            tableValues = new int[TABLE_SIZE];
+            tableDepths = new byte[TABLE_SIZE];
+            tableBounds = new byte[TABLE_SIZE];
+            tableMoves = new short[TABLE_SIZE];
+        }
+        // With the bag empty, the sample is the actual position
+        board = gateKeeper.sampleBoard(new Random(0));
+        this.budget = budget;
+        aborted = budget.isExhausted();
+        depthReached = 0;
+        int best = -1;
+        for (int depth = 1; depth < COMPLETE; depth++) {
+            hitHorizon = false;
+            search(depth, -Integer.MAX_VALUE, Integer.MAX_VALUE, 0);
+            if (aborted) {
+                break;
+            }
+            best = rootMove;
+            depthReached = depth;
+            if (!hitHorizon) {
+                depthReached = COMPLETE;
+                break;
+            }
+        }
+        budget = null;
+        if (best < 0) {
+            // Not even a one-move search finished; play the highest-scoring move
+            generate(0);
+            best = moves[0].order[0];
+        }
+        return moves[0].toScrabbleMove(best);
+    }
+
+    /**
+     * Returns the value of the position for the player to move: the most by which that player can increase their
+     * lead over the rest of the game, or, if depth moves are not enough to finish the game, by the end of depth
+     * moves. The result is only exact if it is strictly between alpha and beta; otherwise it is a bound.
+     */
+    private int search(int depth, int alpha, int beta, int ply) {
+        if (board.gameIsOver()) {
+            return 0;
+        }
+        if (depth == 0) {
+            hitHorizon = true;
+            return 0;
+        }
+        // Nodes are reported to the budget in batches, which keeps the cost of checking it negligible
+        if ((++nodes & 1023) == 0 && budget.addNodes(1024)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        long key = board.getHash();
+        int slot = (int) key & (TABLE_SIZE - 1);
+        int remembered = -1;
+        if (tableKeys[slot] == key) {
+            remembered = tableMoves[slot];
+            if (ply > 0 && tableDepths[slot] >= depth) {
+                int value = tableValues[slot];
+                byte bound = tableBounds[slot];
+                if (bound == EXACT || (bound == LOWER && value >= beta) || (bound == UPPER && value <= alpha)) {
+                    hitHorizon |= tableDepths[slot] < COMPLETE;
+                    return value;
+                }
+            }
+        }
+        Moves available = generate(ply);
+        if (remembered >= 0 && remembered < available.count) {
+            available.promote(remembered);
+        }
+        boolean horizonAbove = hitHorizon;
+        hitHorizon = false;
+        int originalAlpha = alpha;
+        int best = -Integer.MAX_VALUE;
+        int bestMove = -1;
+        for (int i = 0; i < available.count; i++) {
+            int move = available.order[i];
+            int value;
+            if (depth == 1) {
+                // The last move searched; its value can be worked out without making it
+                value = lastMoveGain(available, move);
+            } else {
+                make(available, move);
+                value = available.gain - search(depth - 1, -beta, -alpha, ply + 1);
+                board.unmakeMove();
+                if (aborted) {
+                    return 0;
+                }
+            }
+            if (value > best) {
+                best = value;
+                bestMove = move;
+            }
+            if (value > alpha) {
+                alpha = value;
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        boolean complete = !hitHorizon;
+        hitHorizon |= horizonAbove;
+        tableKeys[slot] = key;
+        tableValues[slot] = best;
+        tableDepths[slot] = (byte) (complete ? COMPLETE : depth);
+        tableBounds[slot] = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+        tableMoves[slot] = (short) bestMove;
+        if (ply == 0) {
+            rootMove = bestMove;
+        }
+        return best;
+    }
+
+    /** Fills in and returns the Moves for ply with those available on board, best-scoring first. */
+    private Moves generate(int ply) {
+        if (ply == moves.length) {
+            moves = Arrays.copyOf(moves, ply * 2 + 1);
+        }
+        if (moves[ply] == null) {
+            moves[ply] = new Moves();
+        }
+        Moves result = moves[ply];
+        result.count = 0;
+        generator.generate(board, board.getHand(board.getCurrentPlayer()), result);
+        result.addPass();
+        result.sort();
+        return result;
+    }
+
+    /** Makes move from available on board, setting available.gain to the increase in the mover's lead. */
+    private void make(Moves available, int move) {
+        int player = board.getCurrentPlayer();
+        int lead = board.getScore(player) - board.getScore(1 - player);
+        int length = available.lengths[move];
+        if (length == 0) {
+            board.makeExchange(PASS);
+        } else {
+            board.makeMove(available.rows[move], available.columns[move], available.directions[move],
+                    available.words[move], length);
+        }
+        available.gain = board.getScore(player) - board.getScore(1 - player) - lead;
+    }
+
+    /**
+     * Returns the increase in the mover's lead from move in available, exactly as make would find it, but without
+     * making the move. Sets hitHorizon if the game would not be over after the move.
+     */
+    private int lastMoveGain(Moves available, int move) {
+        int player = board.getCurrentPlayer();
+        TileRack hand = board.getHand(player);
+        if (available.lengths[move] == 0) {
+            if (board.getNumberOfPasses() == 0) {
+                hitHorizon = true;
+                return 0;
+            }
+            // Two passes in a row end the game, and each player loses the value of their own tiles
+            return handValue(board.getHand(1 - player)) - handValue(hand);
+        }
+        if (available.tilesPlayed[move] < hand.size()) {
+            hitHorizon = true;
+            return available.scores[move];
+        }
+        // Going out ends the game, and the player gains the value of the opponent's tiles, which the opponent loses
+        return available.scores[move] + 2 * handValue(board.getHand(1 - player));
+    }
+
+    /** Returns the total value of the tiles in hand. */
+    private static int handValue(TileRack hand) {
+        int result = 0;
+        for (int kind = 0; kind < TileRack.KINDS; kind++) {
+            result += hand.count(kind) * Board.getValue(TileRack.tileAt(kind));
+        }
+        return result;
+    }
+
+    /** The moves available in one position: every legal play, then passing. */
+    private static class Moves implements MoveGenerator.Listener {
+
+        /** Number of moves. */
+        int count;
+
+        // Each move; passing has length 0
+
+        char[][] words = new char[64][Board.WIDTH];
+
+        int[] lengths = new int[64];
+
+        int[] rows = new int[64];
+
+        int[] columns = new int[64];
+
+        int[] directions = new int[64];
+
+        int[] scores = new int[64];
+
+        int[] tilesPlayed = new int[64];
+
+        /** Indices of the moves, in the order they are to be tried. */
+        int[] order = new int[64];
+
+        /** Scratch space for sort. */
+        long[] sortKeys = new long[64];
+
+        /** Increase in the mover's lead from the move most recently made by EndgameSolver.make. */
+        int gain;
+
+        @Override
+        public void play(char[] word, int length, Location location, Location direction, int score) {
+            add(word, length, location.getRow(), location.getColumn(), Board.directionIndex(direction), score);
+        }
+
+        /** Adds passing. */
+        void addPass() {
+            add(null, 0, 0, 0, Board.ACROSS, 0);
+        }
+
+        private void add(char[] word, int length, int row, int column, int direction, int score) {
+            if (count == lengths.length) {
+                int capacity = count * 2;
+                words = Arrays.copyOf(words, capacity);
+                for (int i = count; i < capacity; i++) {
+                    words[i] = new char[Board.WIDTH];
+                }
+                lengths = Arrays.copyOf(lengths, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+                columns = Arrays.copyOf(columns, capacity);
+                directions = Arrays.copyOf(directions, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+                tilesPlayed = Arrays.copyOf(tilesPlayed, capacity);
+                order = Arrays.copyOf(order, capacity);
+                sortKeys = new long[capacity];
+            }
+            int tiles = 0;
+            for (int i = 0; i < length; i++) {
+                words[count][i] = word[i];
+                if (word[i] != ' ') {
+                    tiles++;
+                }
+            }
+            tilesPlayed[count] = tiles;
+            lengths[count] = length;
+            rows[count] = row;
+            columns[count] = column;
+            directions[count] = direction;
+            scores[count] = score;
+            order[count] = count;
+            count++;
+        }
+
+        /** Orders the moves by decreasing score, breaking ties by index. */
+        void sort() {
+            // Each sort key holds the negated score in its high half and the index in its low half
+            for (int i = 0; i < count; i++) {
+                sortKeys[i] = (long) -scores[i] << 32 | i;
+            }
+            Arrays.sort(sortKeys, 0, count);
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) sortKeys[i];
+            }
+        }
+
+        /** Moves move to the front of the order. */
+        void promote(int move) {
+            int i = 0;
+            while (order[i] != move) {
+                i++;
+            }
+            System.arraycopy(order, 0, order, 1, i);
+            order[0] = move;
+        }
+
+        /** Returns move as a ScrabbleMove. */
+        ScrabbleMove toScrabbleMove(int move) {
+            if (lengths[move] == 0) {
+                return new ExchangeTiles(PASS);
+            }
+            return new PlayWord(new String(words[move], 0, lengths[move]), Location.of(rows[move], columns[move]),
+                    directions[move] == Board.ACROSS ? Location.HORIZONTAL : Location.VERTICAL);
+        }
+
+    }
+
+}
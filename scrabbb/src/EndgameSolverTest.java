@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameSolverTest {
+
+    /** When exchanging, always exchange everything. */
+    private static final boolean[] ALL_TILES = {true, true, true, true, true, true, true};
+
+    /**
+     * Returns a Board, seeded with seed, on which both players have played their highest-scoring plays until the bag
+     * is empty and the player to move has at most maxTiles tiles left.
+     */
+    private Board endgame(long seed, int maxTiles) {
+        Board board = new Board(new Random(seed));
+        MoveGenerator generator = new MoveGenerator(Board.getLexicon());
+        while (!board.gameIsOver()
+                && (board.getBagSize() > 0 || board.getHand(board.getCurrentPlayer()).size() > maxTiles)) {
+            TileRack hand = board.getHand(board.getCurrentPlayer());
+            ScoredPlay best = null;
+            for (ScoredPlay play : generator.generate(board, hand)) {
+                if (best == null || play.getScore() > best.getScore()) {
+                    best = play;
+                }
+            }
+            if (best == null) {
+                board.makeExchange(ALL_TILES);
+            } else {
+                String word = best.getWord();
+                board.makeMove(best.getLocation().getRow(), best.getLocation().getColumn(),
+                        Board.directionIndex(best.getDirection()), word.toCharArray(), word.length());
+            }
+        }
+        return board;
+    }
+
+    @Test
+    public void defersToMidgameAiWhileBagHasTiles() {
+        Board board = new Board(new Random(1));
+        ScrabbleAI midgame = new Incrementalist();
+        EndgameSolver solver = new EndgameSolver(midgame, 1000);
+        solver.setGateKeeper(new GateKeeper(board, 0));
+        assertEquals(midgame.chooseMove().toString(), solver.chooseMove().toString());
+    }
+
+    /**
+     * Returns the most by which the player to move on board can increase their lead over the rest of the game, found
+     * by trying every sequence of moves. Positions already valued are looked up in values, by Board.getHash.
+     */
+    private int bruteForce(Board board, MoveGenerator generator, HashMap<Long, Integer> values) {
+        if (board.gameIsOver()) {
+            return 0;
+        }
+        Integer known = values.get(board.getHash());
+        if (known != null) {
+            return known;
+        }
+        int player = board.getCurrentPlayer();
+        int lead = board.getScore(player) - board.getScore(1 - player);
+        int best = -Integer.MAX_VALUE;
+        for (ScoredPlay play : generator.generate(board, board.getHand(player))) {
+            String word = play.getWord();
+            board.makeMove(play.getLocation().getRow(), play.getLocation().getColumn(),
+                    Board.directionIndex(play.getDirection()), word.toCharArray(), word.length());
+            best = Math.max(best, board.getScore(player) - board.getScore(1 - player) - lead
+                    - bruteForce(board, generator, values));
+            board.unmakeMove();
+        }
+        board.makeExchange(new boolean[7]);
+        best = Math.max(best, board.getScore(player) - board.getScore(1 - player) - lead
+                - bruteForce(board, generator, values));
+        board.unmakeMove();
+        values.put(board.getHash(), best);
+        return best;
+    }
+
+    @Test
+    public void solvesShortEndgameExactly() throws IllegalMoveException {
+        for (long seed = 3; seed < 6; seed++) {
+            Board board = endgame(seed, 3);
+            assertFalse(board.gameIsOver());
+            assertEquals(0, board.getBagSize());
+            int player = board.getCurrentPlayer();
+            MoveGenerator generator = new MoveGenerator(Board.getLexicon());
+            HashMap<Long, Integer> values = new HashMap<>();
+            int optimal = bruteForce(board, generator, values);
+            EndgameSolver solver = new EndgameSolver(new Incrementalist(), 60_000);
+            solver.setGateKeeper(new GateKeeper(board, player));
+            ScrabbleMove move = solver.chooseMove();
+            assertEquals(Integer.MAX_VALUE, solver.getDepthReached());
+            // The solver's move, followed by best play from both sides, must reach the optimal final spread
+            int lead = board.getScore(player) - board.getScore(1 - player);
+            move.play(board, player);
+            assertEquals(optimal, board.getScore(player) - board.getScore(1 - player) - lead
+                    - bruteForce(board, generator, values));
+        }
+    }
+
+    @Test
+    public void returnsLegalMoveWhenOutOfTime() throws IllegalMoveException {
+        Board board = endgame(2, 7);
+        int player = board.getCurrentPlayer();
+        EndgameSolver solver = new EndgameSolver(new Incrementalist(), 0);
+        solver.setGateKeeper(new GateKeeper(board, player));
+        solver.chooseMove().play(board, player);
+    }
+
+    @Test
+    public void stopsWhenBudgetIsCancelled() throws IllegalMoveException {
+        Board board = endgame(2, 7);
+        int player = board.getCurrentPlayer();
+        EndgameSolver solver = new EndgameSolver(new Incrementalist(), 60_000);
+        solver.setGateKeeper(new GateKeeper(board, player));
+        SearchBudget budget = SearchBudget.unlimited();
+        budget.cancel();
+        ScrabbleMove move = solver.chooseMove(budget);
+        assertEquals(0, solver.getDepthReached());
+        move.play(board, player);
+    }
+
+}
@@ -0,0 +1,82 @@
+import java.util.List;
+
+/**
+ * Estimates the equity of candidate plays: the points a play scores plus the value, from a LeaveTable, of the tiles
+ * it leaves in the hand. Once the bag is empty there are no more tiles to draw, so leaves are given no value.
+ *
+ * A ScrabbleAI calls setPosition once per move, then equity for each candidate play. The leave is worked out from
+ * the hand's tile counts, as TileRack.removeTiles would leave them, without allocating anything. An EquityEvaluator
+ * keeps scratch space, so each thread should use its own.
+ */
+public class EquityEvaluator {
+
+    /** Values of the leaves. */
+    private final LeaveTable leaves;
+
+    /** Number of each kind of tile (indexed as by TileRack.kindOf) in the hand. */
+    private final int[] hand = new int[TileRack.KINDS];
+
+    /** Scratch space for the leave of a play, counted like hand. */
+    private final int[] leave = new int[TileRack.KINDS];
+
+    /** True if the bag is empty. */
+    private boolean bagEmpty;
+
+    /** Uses the default LeaveTable (see LeaveTable.getDefault). */
+    public EquityEvaluator() {
+        this(LeaveTable.getDefault());
+    }
+
+    public EquityEvaluator(LeaveTable leaves) {
+        this.leaves = leaves;
+    }
+
+    /**
+     * Sets the hand from which the candidate plays are made and the number of tiles in the bag, for example from
+     * GateKeeper.getHand and GateKeeper.getBagSize.
+     */
+    public void setPosition(List<Character> hand, int bagSize) {
+        for (int kind = 0; kind < TileRack.KINDS; kind++) {
+            this.hand[kind] = 0;
+        }
+        for (int i = 0; i < hand.size(); i++) {
+            this.hand[TileRack.kindOf(hand.get(i))]++;
+        }
+        bagEmpty = bagSize == 0;
+    }
+
+    /** Returns the value of the tiles left in the hand after playing word[0], ..., word[length - 1]. */
+    public double leaveValue(char[] word, int length) {
+        if (bagEmpty) {
+            return 0;
+        }
+        System.arraycopy(hand, 0, leave, 0, TileRack.KINDS);
+        int tiles = 0;
+        for (int kind = 0; kind < TileRack.KINDS; kind++) {
+            tiles += leave[kind];
+        }
+        for (int i = 0; i < length; i++) {
+            int kind = TileRack.kindOf(word[i]);
+            if (kind >= 0) {
+                leave[kind]--;
+                tiles--;
+            }
+        }
+        if (tiles > LeaveTable.MAX_TILES) {
+            return 0; // Nothing played from a full hand; not a play
+        }
+        return leaves.value(leave);
+    }
+
+    /** Returns the equity of playing word[0], ..., word[length - 1] for score points. */
+    public double equity(char[] word, int length, int score) {
+        return score + leaveValue(word, length);
+    }
+
+    /** Returns the equity of play. Allocates a copy of its word; use the array version for many plays. */
+    public double equity(ScoredPlay play) {
+        char[] word = play.getWord().toCharArray();
+        return equity(word, word.length, play.getScore());
+    }
+
+}
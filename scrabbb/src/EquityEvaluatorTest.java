@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EquityEvaluatorTest {
+
+    private static LeaveTable table;
+
+    @BeforeAll
+    public static void buildTable() {
+        LeaveTable.Builder builder = new LeaveTable.Builder();
+        for (int i = 0; i < 50; i++) {
+            builder.add(LeaveTable.key(counts("s_")), 60);
+            builder.add(LeaveTable.key(counts("qvv")), 10);
+            builder.add(LeaveTable.key(counts("ae")), 30);
+            // So that a blank and a v are valued differently
+            builder.add(LeaveTable.key(counts("_")), 50);
+            builder.add(LeaveTable.key(counts("v")), 5);
+        }
+        table = builder.build();
+    }
+
+    /** Returns the tile counts of the tiles in leave, indexed as by TileRack.kindOf. */
+    private static int[] counts(String leave) {
+        int[] result = new int[TileRack.KINDS];
+        for (char tile : leave.toCharArray()) {
+            result[TileRack.kindOf(tile)]++;
+        }
+        return result;
+    }
+
+    @Test
+    public void blankPlayedAsLetterLeavesThatLetter() {
+        EquityEvaluator evaluator = new EquityEvaluator(table);
+        evaluator.setPosition(BoardTest.asCharList("s_aeqvv"), 50);
+        // Real tiles, and squares already occupied, which use nothing from the hand
+        assertEquals(table.value(counts("s_ae")), evaluator.leaveValue("q vv".toCharArray(), 4));
+        // The upper-case V is the blank, so a real v stays in the hand
+        assertEquals(table.value(counts("saev")), evaluator.leaveValue("qvV".toCharArray(), 3));
+        assertNotEquals(evaluator.leaveValue("qvv".toCharArray(), 3), evaluator.leaveValue("qvV".toCharArray(), 3));
+        assertEquals(12 + table.value(counts("saev")), evaluator.equity("qvV".toCharArray(), 3, 12));
+    }
+
+    @Test
+    public void leavesAreWorthNothingOnceBagIsEmpty() {
+        EquityEvaluator evaluator = new EquityEvaluator(table);
+        evaluator.setPosition(BoardTest.asCharList("s_aeqvv"), 0);
+        assertEquals(0, evaluator.leaveValue("qvv".toCharArray(), 3));
+        assertEquals(12, evaluator.equity("qvv".toCharArray(), 3, 12));
+    }
+
+    @Test
+    public void playUsingNoTilesFromFullHandIsWorthNothing() {
+        // With seven tiles, the key would overflow; here it would wrap around to the key of "aeinrs"
+        assertNotEquals(0, table.value(counts("aeinrs")));
+        EquityEvaluator evaluator = new EquityEvaluator(table);
+        evaluator.setPosition(BoardTest.asCharList("aeinrst"), 50);
+        assertEquals(0, evaluator.leaveValue("  ".toCharArray(), 2));
+    }
+
+}
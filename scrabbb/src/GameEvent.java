@@ -0,0 +1,32 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a game played by ScrabbleTournament.playGame. Its start and end times are those of
+ * the game.
+ */
+@Name("scrabble.Game")
+@Label("Game")
+@Category("Scrabble")
+@Description("A game between two ScrabbleAIs")
+public class GameEvent extends Event {
+
+    @Label("First Player")
+    String firstPlayer;
+
+    @Label("Second Player")
+    String secondPlayer;
+
+    @Label("First Player's Score")
+    int firstScore;
+
+    @Label("Second Player's Score")
+    int secondScore;
+
+    @Label("Moves")
+    int moves;
+
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Random;
 
 /**
  * Intermediary between a ScrabbleAI and a Board, allowing the former to get information it needs without allowing
@@ -12,13 +13,41 @@ public class GateKeeper {
     /** The ScrabbleAI's player number (0 or 1). */
     private int player;
 
+    /** Counts the calls made through this GateKeeper, or null. */
+    private MoveStatistics statistics;
+
+    /**
+     * Number of plays examined through this GateKeeper: each one generated by generateMoves or checked by
+     * verifyLegality, checkLegality, or tryScore.
+     */
+    private long playsExamined;
+
+    /** Plays worked out ahead of time, consulted by generateMoves, or null. */
+    private Ponderer ponderer;
+
+    /** Number of calls to generateMoves answered from the ponderer's plays, without generating any. */
+    private int ponderedCalls;
+
+    /** Finds legal plays; created when first needed. */
+    private MoveGenerator generator;
+
     /**
      * @param board The associated Board.
      * @param player The ScrabbleAI's player number (0 or 1).
      */
     public GateKeeper(Board board, int player) {
+        this(board, player, null);
+    }
+
+    /**
+     * @param board The associated Board.
+     * @param player The ScrabbleAI's player number (0 or 1).
+     * @param statistics Counts the legality checks and score calls made through this GateKeeper, or null.
+     */
+    public GateKeeper(Board board, int player, MoveStatistics statistics) {
         this.board = board;
         this.player = player;
+        this.statistics = statistics;
     }
 
     /**
@@ -36,14 +65,126 @@ public class GateKeeper {
      * score or returning a move.
      */
     public void verifyLegality(String word, Location location, Location direction) throws IllegalMoveException {
+        if (statistics != null) {
+            statistics.countLegalityCheck();
+        }
+        playsExamined++;
         board.verifyLegality(word, location, direction, board.getHand(player));
     }
 
     /** Returns the score for playing word at loation in direction. Assumes this is a legal play. */
     public int score(String word, Location location, Location direction) {
+        if (statistics != null) {
+            statistics.countScoreCall();
+        }
         return board.score(word, location, direction);
     }
 
+    /**
+     * Returns Board.LEGAL if it is legal to play word[0], ..., word[length - 1] at row, column in direction
+     * (Board.ACROSS or Board.DOWN) given the ScrabbleAI's current hand, or another Board result code otherwise. This
+     * is the exception-free counterpart of verifyLegality, for ScrabbleAIs that test many candidate plays.
+     */
+    public int checkLegality(int row, int column, int direction, char[] word, int length) {
+        if (statistics != null) {
+            statistics.countLegalityCheck();
+        }
+        playsExamined++;
+        return board.checkLegality(row, column, direction, word, length, board.getHand(player));
+    }
+
+    /**
+     * Returns the score for playing word[0], ..., word[length - 1] at row, column in direction (Board.ACROSS or
+     * Board.DOWN), or -1 if this is not legal given the ScrabbleAI's current hand. Never throws an exception.
+     */
+    public int tryScore(int row, int column, int direction, char[] word, int length) {
+        if (statistics != null) {
+            // It both checks and scores
+            statistics.countLegalityCheck();
+            statistics.countScoreCall();
+        }
+        playsExamined++;
+        return board.tryScore(row, column, direction, word, length, board.getHand(player));
+    }
+
+    /**
+     * Returns every legal play for the ScrabbleAI's current hand, with its score. These are exactly the plays for
+     * which verifyLegality would not throw an exception.
+     */
+    public ArrayList<ScoredPlay> generateMoves() {
+        if (ponderer != null) {
+            ArrayList<ScoredPlay> pondered = ponderer.getMoves(board.getHash(player));
+            if (pondered != null) {
+                ponderedCalls++;
+                playsExamined += pondered.size();
+                if (statistics != null) {
+                    statistics.countGeneratedPlays(pondered.size());
+                }
+                return pondered;
+            }
+        }
+        if (generator == null) {
+            generator = new MoveGenerator(Board.getLexicon());
+        }
+        ArrayList<ScoredPlay> result = generator.generate(board, board.getHand(player));
+        playsExamined += result.size();
+        if (statistics != null) {
+            statistics.countGeneratedPlays(result.size());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of plays examined through this GateKeeper so far: each one generated by generateMoves or
+     * checked by verifyLegality, checkLegality, or tryScore.
+     */
+    public long getPlaysExamined() {
+        return playsExamined;
+    }
+
+    /**
+     * Has generateMoves return the plays ponderer has worked out, when it has worked out the current position, instead
+     * of generating them. Pass null to stop.
+     */
+    public void setPonderer(Ponderer ponderer) {
+        this.ponderer = ponderer;
+    }
+
+    /** Returns the number of calls to generateMoves answered from the ponderer's plays, without generating any. */
+    int getPonderedCalls() {
+        return ponderedCalls;
+    }
+
+    /** Returns the MoveStatistics counting calls made through this GateKeeper, or null. */
+    MoveStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns a 64-bit Zobrist hash of the position as the ScrabbleAI sees it: the tiles on the board, its hand, the
+     * player to move, and the number of passes. Suitable as a key for caching work on the position.
+     *
+     * @see Board#getHash(int)
+     */
+    public long getHash() {
+        return board.getHash(player);
+    }
+
+    /** Returns the number of tiles left in the bag. */
+    public int getBagSize() {
+        return board.getBagSize();
+    }
+
+    /**
+     * Returns a copy of the Board in which the opponent's hand has been dealt, using random, from the tiles the
+     * ScrabbleAI cannot see. The ScrabbleAI may make moves on the copy (see Board.makeMove) to simulate the game.
+     *
+     * @see Board#sample(int, Random)
+     */
+    public Board sampleBoard(Random random) {
+        return board.sample(player, random);
+    }
+
     /** Returns a copy of the ScrabbleAI's hand. */
     public ArrayList<Character> getHand() {
         return new ArrayList<Character>(board.getHand(player));
@@ -28,29 +28,27 @@ public class Incrementalist implements ScrabbleAI {
     /** This is necessary for the first turn, as one-letter words are not allowed. */
     private ScrabbleMove findTwoTileMove() {
         ArrayList<Character> hand = gateKeeper.getHand();
+        char[] word = new char[2];
         String bestWord = null;
         int bestScore = -1;
         for (int i = 0; i < hand.size(); i++) {
             for (int j = 0; j < hand.size(); j++) {
                 if (i != j) {
-                    try {
-                        char a = hand.get(i);
-                        if (a == '_') {
-                            a = 'E'; // This could be improved slightly by trying all possibilities for the blank
-                        }
-                        char b = hand.get(j);
-                        if (b == '_') {
-                            b = 'E'; // This could be improved slightly by trying all possibilities for the blank
-                        }
-                        String word = "" + a + b;
-                        gateKeeper.verifyLegality(word, Location.CENTER, Location.HORIZONTAL);
-                        int score = gateKeeper.score(word, Location.CENTER, Location.HORIZONTAL);
-                        if (score > bestScore) {
-                            bestScore = score;
-                            bestWord = word;
-                        }
-                    } catch (IllegalMoveException e) {
-                        // It wasn't legal; go on to the next one
+                    char a = hand.get(i);
+                    if (a == '_') {
+                        a = 'E'; // This could be improved slightly by trying all possibilities for the blank
+                    }
+                    char b = hand.get(j);
+                    if (b == '_') {
+                        b = 'E'; // This could be improved slightly by trying all possibilities for the blank
+                    }
+                    word[0] = a;
+                    word[1] = b;
+                    int score = gateKeeper.tryScore(Location.CENTER.getRow(), Location.CENTER.getColumn(),
+                            Board.ACROSS, word, 2);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestWord = new String(word);
                     }
                 }
             }
@@ -74,20 +72,15 @@ public class Incrementalist implements ScrabbleAI {
             if (c == '_') {
                 c = 'E'; // This could be improved slightly by trying all possibilities for the blank
             }
-            for (String word : new String[] {c + " ", " " + c}) {
+            for (char[] word : new char[][] {{c, ' '}, {' ', c}}) {
                 for (int row = 0; row < Board.WIDTH; row++) {
                     for (int col = 0; col < Board.WIDTH; col++) {
-                        Location location = new Location(row, col);
-                        for (Location direction : new Location[] {Location.HORIZONTAL, Location.VERTICAL}) {
-                            try {
-                                gateKeeper.verifyLegality(word, location, direction);
-                                int score = gateKeeper.score(word, location, direction);
-                                if (score > bestScore) {
-                                    bestScore = score;
-                                    bestMove = new PlayWord(word, location, direction);
-                                }
-                            } catch (IllegalMoveException e) {
-                                // It wasn't legal; go on to the next one
+                        for (int direction = Board.ACROSS; direction <= Board.DOWN; direction++) {
+                            int score = gateKeeper.tryScore(row, col, direction, word, 2);
+                            if (score > bestScore) {
+                                bestScore = score;
+                                bestMove = new PlayWord(new String(word), Location.of(row, col),
+                                        direction == Board.ACROSS ? Location.HORIZONTAL : Location.VERTICAL);
                             }
                         }
                     }
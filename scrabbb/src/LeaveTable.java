@@ -0,0 +1,328 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Value, in points, of each leave: the tiles kept in the hand after a play. A good leave makes good plays more
+ * likely on later turns, so a play's score plus the value of its leave (see EquityEvaluator) is a better guide to
+ * its worth than its score alone.
+ *
+ * The table covers every multiset of up to MAX_TILES tiles that the bag can supply. Each leave is encoded as an int
+ * key (see key), and the keys are stored sorted, next to the values, so a lookup is a binary search over two
+ * primitive arrays. A table can be written to a file and memory-mapped back from it, as with DawgLexicon.
+ *
+ * Tables are built from self-play (see Builder and ScrabbleTournament): a leave's value is how much more than
+ * average its holder scored on their next turn.
+ */
+public class LeaveTable {
+
+    /** Largest number of tiles in a leave. A play uses at least one tile from a full hand of seven. */
+    public static final int MAX_TILES = 6;
+
+    /** Key of the empty leave. */
+    public static final int EMPTY_LEAVE = 0;
+
+    /** Number of bits used for each tile in a key. */
+    private static final int BITS_PER_TILE = 5;
+
+    /** First int of a leave table file ("LEAV" in ASCII). */
+    private static final int MAGIC = 0x4C454156;
+
+    /** Format version of leave table files. */
+    private static final int VERSION = 1;
+
+    /** Name of the file, in the working directory, holding the default table. */
+    public static final String DEFAULT_FILENAME = "leaves.dat";
+
+    /** A table in which every leave is worth 0, for when no trained table is available. */
+    public static final LeaveTable ZERO = new LeaveTable(IntBuffer.allocate(0), FloatBuffer.allocate(0));
+
+    /** Keys of the leaves, in increasing order. */
+    private final IntBuffer keys;
+
+    /** Value of the leave with each key, in the same order. */
+    private final FloatBuffer values;
+
+    private LeaveTable(IntBuffer keys, FloatBuffer values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /** Holds the default table, so that it is only loaded when first used. */
+    private static class DefaultHolder {
+
+        static final LeaveTable TABLE = load(DEFAULT_FILENAME);
+
+    }
+
+    /** Returns the table in DEFAULT_FILENAME, or ZERO if there is none. */
+    public static LeaveTable getDefault() {
+        return DefaultHolder.TABLE;
+    }
+
+    /**
+     * Returns the key for the leave with counts[kind] tiles of each kind (indexed as by TileRack.kindOf). The key
+     * lists the kinds present in increasing order, one per tile, BITS_PER_TILE bits each, offset by one so that the
+     * empty leave is 0. Assumes there are at most MAX_TILES tiles.
+     */
+    public static int key(int[] counts) {
+        int result = 0;
+        int shift = 0;
+        for (int kind = 0; kind < TileRack.KINDS; kind++) {
+            for (int n = counts[kind]; n > 0; n--) {
+                result |= (kind + 1) << shift;
+                shift += BITS_PER_TILE;
+            }
+        }
+        return result;
+    }
+
+    /** Returns the number of leaves in this table. */
+    public int size() {
+        return keys.limit();
+    }
+
+    /** Returns the value of the leave with the given key, or 0 if it is not in this table. */
+    public float value(int key) {
+        int low = 0;
+        int high = keys.limit() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int k = keys.get(middle);
+            if (k < key) {
+                low = middle + 1;
+            } else if (k > key) {
+                high = middle - 1;
+            } else {
+                return values.get(middle);
+            }
+        }
+        return 0;
+    }
+
+    /** Returns the value of the leave with counts[kind] tiles of each kind. */
+    public float value(int[] counts) {
+        return value(key(counts));
+    }
+
+    /** Writes this table to the named file, with DawgLexicon.writeAtomically. */
+    public void write(String filename) throws IOException {
+        int n = size();
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (3 + 2 * n)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(n);
+        for (int i = 0; i < n; i++) {
+            buffer.putInt(keys.get(i));
+        }
+        for (int i = 0; i < n; i++) {
+            buffer.putFloat(values.get(i));
+        }
+        buffer.flip();
+        DawgLexicon.writeAtomically(buffer, Path.of(filename));
+    }
+
+    /**
+     * Returns a LeaveTable backed by a memory map of the named file, as written by write, or ZERO if the file is
+     * missing or unreadable.
+     */
+    public static LeaveTable load(String filename) {
+        if (!new File(filename).isFile()) {
+            return ZERO;
+        }
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return ZERO;
+            }
+            int n = buffer.getInt();
+            if (n < 0 || 8L * n > buffer.remaining()) {
+                return ZERO;
+            }
+            ByteBuffer keyBytes = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+            keyBytes.limit(4 * n);
+            buffer.position(buffer.position() + 4 * n);
+            ByteBuffer valueBytes = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+            valueBytes.limit(4 * n);
+            return new LeaveTable(keyBytes.asIntBuffer(), valueBytes.asFloatBuffer());
+        } catch (IOException e) {
+            return ZERO;
+        }
+    }
+
+    /**
+     * Accumulates observations from self-play and builds a LeaveTable from them. Each observation is a leave and the
+     * number of points its holder scored on their next turn.
+     *
+     * A leave's value combines two estimates of how much more than average its holder scores next turn: the average
+     * over the observations of that exact leave, and the sum of a fitted value for each tile in it. The second
+     * covers the many leaves seen rarely or never; the first takes over as a leave's observations accumulate.
+     */
+    public static class Builder {
+
+        /** Number of observations of an exact leave at which the two estimates are weighted equally. */
+        private static final int PRIOR_WEIGHT = 20;
+
+        /** Number of passes made when fitting the tile values. */
+        private static final int FITTING_PASSES = 50;
+
+        /** For each leave key observed: the number of observations and the total score. */
+        private final HashMap<Integer, long[]> observations = new HashMap<>();
+
+        /** Number of observations. */
+        private long count;
+
+        /** Total score over all observations. */
+        private long total;
+
+        /** Records that a player kept the leave with key and then scored score points on their next turn. */
+        public void add(int key, int score) {
+            long[] stats = observations.computeIfAbsent(key, k -> new long[2]);
+            stats[0]++;
+            stats[1] += score;
+            count++;
+            total += score;
+        }
+
+        /** Adds all of other's observations to this Builder. */
+        public void addAll(Builder other) {
+            for (HashMap.Entry<Integer, long[]> entry : other.observations.entrySet()) {
+                long[] stats = observations.computeIfAbsent(entry.getKey(), k -> new long[2]);
+                stats[0] += entry.getValue()[0];
+                stats[1] += entry.getValue()[1];
+            }
+            count += other.count;
+            total += other.total;
+        }
+
+        /** Returns the number of observations. */
+        public long size() {
+            return count;
+        }
+
+        /**
+         * Returns a LeaveTable covering every leave the bag can supply, with values estimated from the observations.
+         */
+        public LeaveTable build() {
+            double mean = count == 0 ? 0 : (double) total / count;
+            double[] tileValues = fitTileValues(mean);
+            int[] bagCounts = new int[TileRack.KINDS];
+            for (char tile : TileBag.FULL_SET.toCharArray()) {
+                bagCounts[TileRack.kindOf(tile)]++;
+            }
+            int[] leaveKeys = new int[countLeaves(bagCounts, 0, MAX_TILES)];
+            float[] leaveValues = new float[leaveKeys.length];
+            int[] counts = new int[TileRack.KINDS];
+            int[] next = new int[1];
+            enumerate(bagCounts, counts, 0, MAX_TILES, leaveKeys, next);
+            Arrays.sort(leaveKeys);
+            for (int i = 0; i < leaveKeys.length; i++) {
+                double additive = 0;
+                for (int key = leaveKeys[i]; key != 0; key >>>= BITS_PER_TILE) {
+                    additive += tileValues[(key & ((1 << BITS_PER_TILE) - 1)) - 1];
+                }
+                long[] stats = observations.get(leaveKeys[i]);
+                double value = additive;
+                if (stats != null) {
+                    double observed = (double) stats[1] / stats[0] - mean;
+                    value = (stats[0] * observed + PRIOR_WEIGHT * additive) / (stats[0] + PRIOR_WEIGHT);
+                }
+                leaveValues[i] = (float) value;
+            }
+            return new LeaveTable(IntBuffer.wrap(leaveKeys), FloatBuffer.wrap(leaveValues));
+        }
+
+        /**
+         * Returns, for each kind of tile, the value that best explains (by least squares) each observation's score
+         * minus mean as the sum of the values of the tiles in its leave.
+         */
+        private double[] fitTileValues(double mean) {
+            double[] result = new double[TileRack.KINDS];
+            int n = observations.size();
+            int[] leaves = new int[n];
+            long[] counts = new long[n];
+            long[] totals = new long[n];
+            // For each leave, the kinds of tile it contains, as a bit mask, so leaves without a kind are skipped fast
+            int[] kinds = new int[n];
+            int i = 0;
+            for (HashMap.Entry<Integer, long[]> entry : observations.entrySet()) {
+                leaves[i] = entry.getKey();
+                counts[i] = entry.getValue()[0];
+                totals[i] = entry.getValue()[1];
+                for (int key = leaves[i]; key != 0; key >>>= BITS_PER_TILE) {
+                    kinds[i] |= 1 << ((key & ((1 << BITS_PER_TILE) - 1)) - 1);
+                }
+                i++;
+            }
+            // Coordinate descent: repeatedly set each tile's value to minimize the error given the others
+            for (int pass = 0; pass < FITTING_PASSES; pass++) {
+                for (int kind = 0; kind < TileRack.KINDS; kind++) {
+                    double residual = 0;
+                    double weight = 0;
+                    for (i = 0; i < n; i++) {
+                        if ((kinds[i] & (1 << kind)) == 0) {
+                            continue;
+                        }
+                        int copies = 0;
+                        double others = 0;
+                        for (int key = leaves[i]; key != 0; key >>>= BITS_PER_TILE) {
+                            int k = (key & ((1 << BITS_PER_TILE) - 1)) - 1;
+                            if (k == kind) {
+                                copies++;
+                            } else {
+                                others += result[k];
+                            }
+                        }
+                        residual += copies * (totals[i] - counts[i] * (mean + others));
+                        weight += (double) copies * copies * counts[i];
+                    }
+                    if (weight > 0) {
+                        result[kind] = residual / weight;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /** Returns the number of multisets of up to n tiles of kinds kind and above that bagCounts can supply. */
+        private static int countLeaves(int[] bagCounts, int kind, int n) {
+            if (kind == TileRack.KINDS) {
+                return 1;
+            }
+            int result = 0;
+            for (int copies = 0; copies <= Math.min(n, bagCounts[kind]); copies++) {
+                result += countLeaves(bagCounts, kind + 1, n - copies);
+            }
+            return result;
+        }
+
+        /**
+         * Stores in keys, starting at next[0], the key of every leave made of counts[0], ..., counts[kind - 1] plus
+         * up to n tiles of kinds kind and above.
+         */
+        private static void enumerate(int[] bagCounts, int[] counts, int kind, int n, int[] keys, int[] next) {
+            if (kind == TileRack.KINDS) {
+                keys[next[0]++] = key(counts);
+                return;
+            }
+            for (int copies = 0; copies <= Math.min(n, bagCounts[kind]); copies++) {
+                counts[kind] = copies;
+                enumerate(bagCounts, counts, kind + 1, n - copies, keys, next);
+            }
+            counts[kind] = 0;
+        }
+
+    }
+
+}
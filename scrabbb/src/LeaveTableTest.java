@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaveTableTest {
+
+    /** Returns the tile counts of the tiles in leave, indexed as by TileRack.kindOf. */
+    private static int[] counts(String leave) {
+        int[] result = new int[TileRack.KINDS];
+        for (char tile : leave.toCharArray()) {
+            result[TileRack.kindOf(tile)]++;
+        }
+        return result;
+    }
+
+    @Test
+    public void keyIgnoresOrderOfTiles() {
+        assertEquals(LeaveTable.EMPTY_LEAVE, LeaveTable.key(counts("")));
+        assertEquals(LeaveTable.key(counts("ers")), LeaveTable.key(counts("sre")));
+        assertNotEquals(LeaveTable.key(counts("ers")), LeaveTable.key(counts("err")));
+        assertNotEquals(LeaveTable.key(counts("e_")), LeaveTable.key(counts("e")));
+    }
+
+    @Test
+    public void builtTableCoversEveryLeave() {
+        LeaveTable.Builder builder = new LeaveTable.Builder();
+        for (int i = 0; i < 50; i++) {
+            builder.add(LeaveTable.key(counts("s_")), 60);
+            builder.add(LeaveTable.key(counts("qvv")), 10);
+            builder.add(LeaveTable.key(counts("ae")), 30);
+        }
+        LeaveTable table = builder.build();
+        assertEquals(914_625, table.size());
+        assertTrue(table.value(counts("s_")) > table.value(counts("ae")));
+        assertTrue(table.value(counts("ae")) > table.value(counts("qvv")));
+        // Never observed, but valued from its tiles
+        assertTrue(table.value(counts("s")) > table.value(counts("q")));
+        // Not a leave the bag can supply
+        assertEquals(0, table.value(counts("qq")));
+    }
+
+    @Test
+    public void loadsWrittenTable() throws IOException {
+        LeaveTable.Builder builder = new LeaveTable.Builder();
+        builder.add(LeaveTable.key(counts("ers")), 40);
+        builder.add(LeaveTable.key(counts("uuv")), 10);
+        LeaveTable table = builder.build();
+        Path directory = Files.createTempDirectory("leaves");
+        Path file = directory.resolve("leaves.dat");
+        table.write(file.toString());
+        LeaveTable loaded = LeaveTable.load(file.toString());
+        assertEquals(table.size(), loaded.size());
+        for (String leave : List.of("", "ers", "uuv", "_", "aeinst")) {
+            assertEquals(table.value(counts(leave)), loaded.value(counts(leave)));
+        }
+        Files.delete(file);
+        Files.delete(directory);
+        assertSame(LeaveTable.ZERO, LeaveTable.load(file.toString()));
+    }
+
+    @Test
+    public void evaluatorAddsValueOfLeave() {
+        LeaveTable.Builder builder = new LeaveTable.Builder();
+        for (int i = 0; i < 50; i++) {
+            builder.add(LeaveTable.key(counts("s")), 50);
+            builder.add(LeaveTable.key(counts("q")), 10);
+        }
+        EquityEvaluator evaluator = new EquityEvaluator(builder.build());
+        evaluator.setPosition(List.of('q', 'u', 'i', 't', 's'), 50);
+        char[] quit = "quit".toCharArray();
+        char[] its = "its".toCharArray();
+        assertTrue(evaluator.leaveValue(quit, 4) > 0);
+        assertTrue(evaluator.leaveValue(its, 3) < 0);
+        assertEquals(20 + evaluator.leaveValue(quit, 4), evaluator.equity(quit, 4, 20));
+        evaluator.setPosition(List.of('q', 'u', 'i', 't', 's'), 0);
+        assertEquals(0, evaluator.leaveValue(its, 3));
+    }
+
+}
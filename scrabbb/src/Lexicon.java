@@ -0,0 +1,53 @@
+/**
+ * A set of legal words, able to answer prefix and extension queries as well as whole-word lookups.
+ *
+ * Letters are case-insensitive (upper-case letters, i.e. played blanks, are treated as their lower-case
+ * equivalents). Any other character makes a query fail.
+ *
+ * Sets of letters are returned as 26-bit masks: bit 0 for a, bit 1 for b, ..., bit 25 for z.
+ *
+ * Lexicons can also be navigated one letter at a time, which is what move generators need. A node is an int handle
+ * whose meaning is up to the implementation; the only special value is NO_NODE.
+ */
+public interface Lexicon {
+
+    /** Returned by child when there is no such node. */
+    public static final int NO_NODE = -1;
+
+    /** Mask containing all 26 letters. */
+    public static final int ALL_LETTERS = (1 << 26) - 1;
+
+    /** Returns true if word is in this Lexicon. */
+    public boolean contains(CharSequence word);
+
+    /** Returns true if letters[start], ..., letters[start + length - 1] form a word in this Lexicon. */
+    public boolean contains(char[] letters, int start, int length);
+
+    /** Returns true if some word in this Lexicon starts with prefix. The empty string is a prefix of every word. */
+    public boolean isPrefix(CharSequence prefix);
+
+    /** Returns true if some word in this Lexicon ends with suffix. The empty string is a suffix of every word. */
+    public boolean isSuffix(CharSequence suffix);
+
+    /** Returns the letters x such that prefix + x is a prefix of some word. */
+    public int extensionsAfter(CharSequence prefix);
+
+    /** Returns the letters x such that x + suffix is a suffix of some word. */
+    public int extensionsBefore(CharSequence suffix);
+
+    /** Returns the letters x such that before + x + after is a word. */
+    public int lettersBetween(CharSequence before, CharSequence after);
+
+    /** Returns the node for the empty prefix. */
+    public int root();
+
+    /** Returns the node reached from node by letter, or NO_NODE if no word continues that way. */
+    public int child(int node, char letter);
+
+    /** Returns the letters leading from node to another node. */
+    public int childLetters(int node);
+
+    /** Returns true if the prefix leading to node is itself a word. */
+    public boolean isWord(int node);
+
+}
@@ -0,0 +1,33 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a dictionary lookup of a word formed by a play (see Board.isValidWord). Lookups are
+ * far too frequent to record them all, so only a random one in SAMPLING_INTERVAL is recorded.
+ */
+@Name("scrabble.LexiconLookup")
+@Label("Lexicon Lookup")
+@Category("Scrabble")
+@Description("A sampled dictionary lookup")
+public class LexiconLookupEvent extends Event {
+
+    /** On average, one lookup in this many is recorded. */
+    public static final int SAMPLING_INTERVAL = 1024;
+
+    @Label("Word")
+    String word;
+
+    @Label("Valid")
+    boolean valid;
+
+    /** Returns true if this lookup should be recorded. */
+    static boolean sample() {
+        return ThreadLocalRandom.current().nextInt(SAMPLING_INTERVAL) == 0;
+    }
+
+}
@@ -1,11 +1,37 @@
-import java.util.Objects;
-
 /**
  * A location on the Scrabble board, with row and column coordinates. Immutable. Row and column are 0-based from top
  * left.
+ *
+ * Location.of returns a canonical instance for every square on the board and for the ring of off-board squares just
+ * beyond its edges, which act as sentinels. Canonical instances know their neighbors, so neighbor and antineighbor
+ * allocate nothing unless they step two or more squares off the board. Locations created with the constructor are
+ * equal to (but not the same object as) the canonical ones.
  */
 public class Location {
 
+    /** Width of the table of canonical Locations: the board plus a one-square border on each side. */
+    private static final int TABLE_WIDTH = Board.WIDTH + 2;
+
+    /** Canonical Locations, indexed by (row + 1) * TABLE_WIDTH + (column + 1). */
+    private static final Location[] TABLE = new Location[TABLE_WIDTH * TABLE_WIDTH];
+
+    static {
+        for (int r = -1; r <= Board.WIDTH; r++) {
+            for (int c = -1; c <= Board.WIDTH; c++) {
+                TABLE[tableIndex(r, c)] = new Location(r, c);
+            }
+        }
+        for (int r = -1; r <= Board.WIDTH; r++) {
+            for (int c = -1; c <= Board.WIDTH; c++) {
+                Location location = TABLE[tableIndex(r, c)];
+                location.right = lookUp(r, c + 1);
+                location.down = lookUp(r + 1, c);
+                location.left = lookUp(r, c - 1);
+                location.up = lookUp(r - 1, c);
+            }
+        }
+    }
+
     /** Direction for horizontal words. */
     public static final Location HORIZONTAL = new Location(0, 1);
 
@@ -13,15 +39,51 @@ public class Location {
     public static final Location VERTICAL = new Location(1, 0);
 
     /** The center square (which the first move must contain. */
-    public static final Location CENTER = new Location(7, 7);
+    public static final Location CENTER = of(7, 7);
 
     private final int row;
 
     private final int column;
 
+    /** True if this Location is on the board. */
+    private final boolean onBoard;
+
+    // Canonical neighbors, or null if this is not canonical or the neighbor is beyond the sentinel ring
+
+    private Location right;
+
+    private Location down;
+
+    private Location left;
+
+    private Location up;
+
     public Location(int row, int column) {
         this.row = row;
         this.column = column;
+        this.onBoard = row >= 0 && row < Board.WIDTH && column >= 0 && column < Board.WIDTH;
+    }
+
+    /**
+     * Returns the canonical Location for row, column if there is one (that is, if it is on the board or just off
+     * its edge), or a new Location otherwise.
+     */
+    public static Location of(int row, int column) {
+        Location result = lookUp(row, column);
+        return result != null ? result : new Location(row, column);
+    }
+
+    /** Returns the canonical Location for row, column, or null if there is none. */
+    private static Location lookUp(int row, int column) {
+        if (row < -1 || row > Board.WIDTH || column < -1 || column > Board.WIDTH) {
+            return null;
+        }
+        return TABLE[tableIndex(row, column)];
+    }
+
+    /** Returns the index of row, column in TABLE. */
+    private static int tableIndex(int row, int column) {
+        return (row + 1) * TABLE_WIDTH + (column + 1);
     }
 
     public int getRow() {
@@ -33,23 +95,35 @@ public class Location {
     }
 
     /**
-     * Returns a new Location which is offset from this by direction. For example, a.neighbor(HORIZONTAL) is the
+     * Returns the Location which is offset from this by direction. For example, a.neighbor(HORIZONTAL) is the
      * location to the right of a.
      *
      * @param direction HORIZONTAL or VERTICAL.
      */
     public Location neighbor(Location direction) {
-        return new Location(row + direction.row, column + direction.column);
+        Location result = null;
+        if (direction.row == 0 && direction.column == 1) {
+            result = right;
+        } else if (direction.row == 1 && direction.column == 0) {
+            result = down;
+        }
+        return result != null ? result : of(row + direction.row, column + direction.column);
     }
 
     /**
-     * Returns a new Location which is offset from this by the opposite of direction. For example,
+     * Returns the Location which is offset from this by the opposite of direction. For example,
      * a.neighbor(HORIZONTAL) is the location to the left of a.
      *
      * @param direction HORIZONTAL or VERTICAL.
      */
     public Location antineighbor(Location direction) {
-        return new Location(row - direction.row, column - direction.column);
+        Location result = null;
+        if (direction.row == 0 && direction.column == 1) {
+            result = left;
+        } else if (direction.row == 1 && direction.column == 0) {
+            result = up;
+        }
+        return result != null ? result : of(row - direction.row, column - direction.column);
     }
 
     /**
@@ -64,7 +138,7 @@ public class Location {
 
     /** Returns true if this Location is on the board. */
     public boolean isOnBoard() {
-        return row >= 0 && row < 15 && column >= 0 && column < 15;
+        return onBoard;
     }
 
     @Override
@@ -82,7 +156,7 @@ public class Location {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return 31 * row + column;
     }
 
     @Override
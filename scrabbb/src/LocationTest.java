@@ -0,0 +1,36 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocationTest {
+
+    @Test
+    public void neighborsOfBoardSquaresAreCanonical() {
+        Location a = Location.of(3, 4);
+        assertSame(Location.of(3, 5), a.neighbor(Location.HORIZONTAL));
+        assertSame(Location.of(4, 4), a.neighbor(Location.VERTICAL));
+        assertSame(Location.of(3, 3), a.antineighbor(Location.HORIZONTAL));
+        assertSame(Location.of(2, 4), a.antineighbor(Location.VERTICAL));
+    }
+
+    @Test
+    public void constructedLocationsEqualCanonicalOnes() {
+        Location a = new Location(3, 4);
+        assertEquals(Location.of(3, 4), a);
+        assertEquals(Location.of(3, 4).hashCode(), a.hashCode());
+        assertSame(Location.of(3, 5), a.neighbor(Location.HORIZONTAL));
+    }
+
+    @Test
+    public void canStepOffBoardAndBack() {
+        Location edge = Location.of(0, 14);
+        Location off = edge.neighbor(Location.HORIZONTAL);
+        assertFalse(off.isOnBoard());
+        assertEquals(new Location(0, 15), off);
+        assertSame(edge, off.antineighbor(Location.HORIZONTAL));
+        Location farOff = off.neighbor(Location.HORIZONTAL);
+        assertFalse(farOff.isOnBoard());
+        assertEquals(new Location(0, 16), farOff);
+    }
+
+}
@@ -0,0 +1,36 @@
+import java.util.ArrayList;
+
+/**
+ * AI that plays its highest-scoring legal play, found with GateKeeper.generateMoves, or exchanges all of its tiles if
+ * it has none. It answers as fast as the plays can be generated, or at once if the GateKeeper has a Ponderer that
+ * has already worked them out.
+ */
+public class Maximizer implements ScrabbleAI {
+
+    /** When exchanging, always exchange everything. */
+    private static final boolean[] ALL_TILES = {true, true, true, true, true, true, true};
+
+    /** The GateKeeper through which this Maximizer accesses the Board. */
+    private GateKeeper gateKeeper;
+
+    @Override
+    public void setGateKeeper(GateKeeper gateKeeper) {
+        this.gateKeeper = gateKeeper;
+    }
+
+    @Override
+    public ScrabbleMove chooseMove() {
+        ArrayList<ScoredPlay> plays = gateKeeper.generateMoves();
+        ScoredPlay best = null;
+        for (ScoredPlay play : plays) {
+            if (best == null || play.getScore() > best.getScore()) {
+                best = play;
+            }
+        }
+        if (best == null) {
+            return new ExchangeTiles(ALL_TILES);
+        }
+        return best;
+    }
+
+}
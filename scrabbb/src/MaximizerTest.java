@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MaximizerTest {
+
+    @Test
+    public void playsHighestScoringPlay() throws IllegalMoveException {
+        Board board = new Board(new Random(4));
+        GateKeeper gateKeeper = new GateKeeper(board, 0);
+        Maximizer maximizer = new Maximizer();
+        maximizer.setGateKeeper(gateKeeper);
+        ScoredPlay move = (ScoredPlay) maximizer.chooseMove();
+        for (ScoredPlay play : gateKeeper.generateMoves()) {
+            assertTrue(play.getScore() <= move.getScore());
+        }
+        move.play(board, 0);
+        assertEquals(move.getScore(), board.getScore(0));
+    }
+
+    @Test
+    public void usesPonderedPlays() throws IllegalMoveException {
+        Board board = new Board(new Random(3));
+        GateKeeper gateKeeper = new GateKeeper(board, 0);
+        Maximizer maximizer = new Maximizer();
+        maximizer.setGateKeeper(gateKeeper);
+        maximizer.chooseMove().play(board, 0);
+        Ponderer ponderer = new Ponderer(gateKeeper.sampleBoard(new Random(1)), 0, new Random(2));
+        SearchBudget budget = SearchBudget.unlimited();
+        budget.cancel();
+        ponderer.ponder(budget);
+        gateKeeper.setPonderer(ponderer);
+        // The user passes, which the Ponderer always considers
+        board.makeExchange(new boolean[7]);
+        maximizer.chooseMove().play(board, 0);
+        assertEquals(1, gateKeeper.getPonderedCalls());
+    }
+
+}
@@ -0,0 +1,34 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a move played by Board.play or Board.exchange. Moves made and unmade by searches
+ * (Board.makeMove and the like) are not recorded.
+ */
+@Name("scrabble.Move")
+@Label("Move")
+@Category("Scrabble")
+@Description("A word played or tiles exchanged")
+public class MoveEvent extends Event {
+
+    @Label("Player")
+    int player;
+
+    @Label("Word")
+    @Description("The word played, or null for an exchange")
+    String word;
+
+    @Label("Tiles Played")
+    int tilesPlayed;
+
+    @Label("Tiles Exchanged")
+    int tilesExchanged;
+
+    @Label("Score Delta")
+    @Description("Change in the player's score, including any end-of-game adjustment")
+    int scoreDelta;
+
+}
@@ -0,0 +1,257 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates every legal play for a hand, using the algorithm of Appel and Jacobson ("The World's Fastest Scrabble
+ * Program", 1988). Each play is grown through an anchor (an empty square next to a tile, or the empty center square)
+ * one Lexicon node at a time, so only prefixes of real words are ever explored. Letters placed on squares with
+ * tiles above and below (or left and right) are restricted by the cross-checks that Board maintains.
+ *
+ * The plays generated are exactly those accepted by Board.verifyLegality, in the same format (see Board), and their
+ * scores are those computed by Board.score. A play forming words in both directions with a single tile is generated
+ * once in each direction, as Board accepts both.
+ *
+ * A MoveGenerator keeps scratch space between calls, so each thread should use its own.
+ */
+public class MoveGenerator {
+
+    /** Receives the plays found by generate. */
+    public interface Listener {
+
+        /**
+         * Called once for each legal play.
+         *
+         * @param word The play, in word[0], ..., word[length - 1]. This array is reused after the call returns.
+         */
+        public void play(char[] word, int length, Location location, Location direction, int score);
+
+    }
+
+    /** Index of the blank in rack. */
+    private static final int BLANK = 26;
+
+    /** Bonus for playing all seven tiles. */
+    private static final int BINGO_BONUS = 50;
+
+    /** Legal words. */
+    private final Lexicon lexicon;
+
+    /** Values of the letters a through z. */
+    private final int[] values = new int[26];
+
+    /** Squares, as lines[direction][line][position]; for Board.ACROSS, lines are rows. */
+    private final char[][][] lines = new char[2][Board.WIDTH][Board.WIDTH];
+
+    /** Letters allowed on each empty square by the perpendicular word, indexed like lines. */
+    private final int[][][] crossChecks = new int[2][Board.WIDTH][Board.WIDTH];
+
+    /** Value of the tiles in the perpendicular word through each empty square, or -1 if there is none. */
+    private final int[][][] crossScores = new int[2][Board.WIDTH][Board.WIDTH];
+
+    /** True for anchor squares, indexed like lines. */
+    private final boolean[][][] anchors = new boolean[2][Board.WIDTH][Board.WIDTH];
+
+    /** Letter multipliers of the premium squares, indexed like lines. */
+    private final int[][][] letterMultipliers = new int[2][Board.WIDTH][Board.WIDTH];
+
+    /** Word multipliers of the premium squares, indexed like lines. */
+    private final int[][][] wordMultipliers = new int[2][Board.WIDTH][Board.WIDTH];
+
+    /** Number of each letter (and, at index BLANK, blanks) in the hand. */
+    private final int[] rack = new int[27];
+
+    /** The play being built. */
+    private final char[] word = new char[Board.WIDTH];
+
+    /** The direction of the plays being generated (Board.ACROSS or Board.DOWN). */
+    private int direction;
+
+    /** The row (ACROSS) or column (DOWN) of the plays being generated. */
+    private int line;
+
+    /** Receives the plays being generated. */
+    private Listener listener;
+
+    public MoveGenerator(Lexicon lexicon) {
+        this.lexicon = lexicon;
+        for (char c = 'a'; c <= 'z'; c++) {
+            values[c - 'a'] = Board.getValue(c);
+        }
+        for (int r = 0; r < Board.WIDTH; r++) {
+            for (int c = 0; c < Board.WIDTH; c++) {
+                int letterMultiplier = Board.getLetterMultiplier(r, c);
+                int wordMultiplier = Board.getWordMultiplier(r, c);
+                letterMultipliers[Board.ACROSS][r][c] = letterMultiplier;
+                letterMultipliers[Board.DOWN][c][r] = letterMultiplier;
+                wordMultipliers[Board.ACROSS][r][c] = wordMultiplier;
+                wordMultipliers[Board.DOWN][c][r] = wordMultiplier;
+            }
+        }
+    }
+
+    /** Returns all legal plays of tiles from hand on board. */
+    public ArrayList<ScoredPlay> generate(Board board, List<Character> hand) {
+        ArrayList<ScoredPlay> result = new ArrayList<>();
+        generate(board, hand, (word, length, location, direction, score) ->
+                result.add(new ScoredPlay(new String(word, 0, length), location, direction, score)));
+        return result;
+    }
+
+    /** Passes each legal play of tiles from hand on board to listener. */
+    public void generate(Board board, List<Character> hand, Listener listener) {
+        this.listener = listener;
+        for (int i = 0; i < rack.length; i++) {
+            rack[i] = 0;
+        }
+        for (char tile : hand) {
+            rack[tile == '_' ? BLANK : tile - 'a']++;
+        }
+        for (int r = 0; r < Board.WIDTH; r++) {
+            for (int c = 0; c < Board.WIDTH; c++) {
+                char square = board.getSquare(r, c);
+                lines[Board.ACROSS][r][c] = square;
+                lines[Board.DOWN][c][r] = square;
+                boolean anchor = board.isAnchor(r, c);
+                anchors[Board.ACROSS][r][c] = anchor;
+                anchors[Board.DOWN][c][r] = anchor;
+                crossChecks[Board.ACROSS][r][c] = board.getCrossCheck(Board.ACROSS, r, c);
+                crossChecks[Board.DOWN][c][r] = board.getCrossCheck(Board.DOWN, r, c);
+                crossScores[Board.ACROSS][r][c] = board.getCrossScore(Board.ACROSS, r, c);
+                crossScores[Board.DOWN][c][r] = board.getCrossScore(Board.DOWN, r, c);
+            }
+        }
+        for (direction = Board.ACROSS; direction <= Board.DOWN; direction++) {
+            for (line = 0; line < Board.WIDTH; line++) {
+                generateInLine();
+            }
+        }
+        this.listener = null;
+    }
+
+    /** Returns true if square is a tile rather than a premium symbol. */
+    private static boolean isTile(char square) {
+        return Character.isAlphabetic(square);
+    }
+
+    /** Returns the value of a tile on the board (or played from the hand). */
+    private int value(char tile) {
+        return Character.isUpperCase(tile) ? 0 : values[tile - 'a'];
+    }
+
+    /** Generates all plays in the current line and direction. */
+    private void generateInLine() {
+        char[] squares = lines[direction][line];
+        boolean[] isAnchor = anchors[direction][line];
+        for (int anchor = 0; anchor < Board.WIDTH; anchor++) {
+            if (!isAnchor[anchor]) {
+                continue;
+            }
+            if (anchor > 0 && isTile(squares[anchor - 1])) {
+                // The play must start with the tiles already to the left of the anchor
+                int start = anchor - 1;
+                while (start > 0 && isTile(squares[start - 1])) {
+                    start--;
+                }
+                extendRight(lexicon.root(), start, start, anchor, 0, 1, 0, 0);
+            } else {
+                // Tiles from the hand may go on the empty, non-anchor squares to the left of the anchor
+                int limit = 0;
+                while (anchor - limit > 0 && !isAnchor[anchor - limit - 1] && !isTile(squares[anchor - limit - 1])) {
+                    limit++;
+                }
+                leftPart(lexicon.root(), 0, limit, anchor);
+            }
+        }
+    }
+
+    /**
+     * Tries every way of extending a left part, word[0], ..., word[length - 1], to be placed just before anchor.
+     *
+     * @param node The Lexicon node for the left part.
+     * @param limit The number of additional tiles that may be added to the left part.
+     */
+    private void leftPart(int node, int length, int limit, int anchor) {
+        int start = anchor - length;
+        int mainScore = 0;
+        int wordMultiplier = 1;
+        for (int i = 0; i < length; i++) {
+            mainScore += value(word[i]) * letterMultipliers[direction][line][start + i];
+            wordMultiplier *= wordMultipliers[direction][line][start + i];
+        }
+        extendRight(node, start, anchor, anchor, mainScore, wordMultiplier, 0, length);
+        if (limit == 0) {
+            return;
+        }
+        for (int letters = lexicon.childLetters(node); letters != 0; letters &= letters - 1) {
+            int letter = Integer.numberOfTrailingZeros(letters);
+            int next = lexicon.child(node, (char) ('a' + letter));
+            for (int choice = 0; choice < 2; choice++) {
+                int tile = choice == 0 ? letter : BLANK;
+                if (rack[tile] > 0) {
+                    rack[tile]--;
+                    word[length] = (char) ((tile == BLANK ? 'A' : 'a') + letter);
+                    leftPart(next, length + 1, limit - 1, anchor);
+                    rack[tile]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tries every way of extending the play word[0], ..., word[position - start - 1] rightward.
+     *
+     * @param node The Lexicon node for the letters so far.
+     * @param start The position of the first letter of the play.
+     * @param position The position of the next square.
+     * @param mainScore Sum of the (letter-multiplied) values of the letters so far.
+     * @param wordMultiplier Product of the word multipliers of the squares covered so far.
+     * @param crossTotal Total score of cross words formed so far.
+     * @param tilesPlayed Number of tiles from the hand used so far.
+     */
+    private void extendRight(int node, int start, int position, int anchor, int mainScore, int wordMultiplier,
+                             int crossTotal, int tilesPlayed) {
+        char[] squares = lines[direction][line];
+        if (position < Board.WIDTH && isTile(squares[position])) {
+            int next = lexicon.child(node, squares[position]);
+            if (next != Lexicon.NO_NODE) {
+                word[position - start] = ' ';
+                extendRight(next, start, position + 1, anchor, mainScore + value(squares[position]), wordMultiplier,
+                        crossTotal, tilesPlayed);
+            }
+            return;
+        }
+        if (position > anchor && position - start >= 2 && lexicon.isWord(node)) {
+            int score = mainScore * wordMultiplier + crossTotal;
+            if (tilesPlayed == 7) {
+                score += BINGO_BONUS;
+            }
+            Location location = direction == Board.ACROSS ? Location.of(line, start) : Location.of(start, line);
+            listener.play(word, position - start, location,
+                    direction == Board.ACROSS ? Location.HORIZONTAL : Location.VERTICAL, score);
+        }
+        if (position == Board.WIDTH) {
+            return;
+        }
+        int letterMultiplier = letterMultipliers[direction][line][position];
+        int squareMultiplier = wordMultipliers[direction][line][position];
+        int crossScore = crossScores[direction][line][position];
+        int allowed = lexicon.childLetters(node) & crossChecks[direction][line][position];
+        for (int letters = allowed; letters != 0; letters &= letters - 1) {
+            int letter = Integer.numberOfTrailingZeros(letters);
+            int next = lexicon.child(node, (char) ('a' + letter));
+            for (int choice = 0; choice < 2; choice++) {
+                int tile = choice == 0 ? letter : BLANK;
+                if (rack[tile] > 0) {
+                    rack[tile]--;
+                    word[position - start] = (char) ((tile == BLANK ? 'A' : 'a') + letter);
+                    int letterScore = (tile == BLANK ? 0 : values[letter]) * letterMultiplier;
+                    int cross = crossScore < 0 ? 0 : (crossScore + letterScore) * squareMultiplier;
+                    extendRight(next, start, position + 1, anchor, mainScore + letterScore,
+                            wordMultiplier * squareMultiplier, crossTotal + cross, tilesPlayed + 1);
+                    rack[tile]++;
+                }
+            }
+        }
+    }
+
+}
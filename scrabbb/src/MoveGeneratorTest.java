@@ -0,0 +1,184 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveGeneratorTest {
+
+    private Board board;
+
+    private MoveGenerator generator;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        generator = new MoveGenerator(Board.getLexicon());
+    }
+
+    /** Returns the play in plays matching word, location, and direction, or null if there is none. */
+    private ScoredPlay find(ArrayList<ScoredPlay> plays, String word, Location location, Location direction) {
+        for (ScoredPlay play : plays) {
+            if (play.getWord().equals(word) && play.getLocation().equals(location)
+                    && play.getDirection() == direction) {
+                return play;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void firstPlaysCoverCenter() {
+        ArrayList<ScoredPlay> plays = generator.generate(board, BoardTest.asCharList("hornets"));
+        assertFalse(plays.isEmpty());
+        for (ScoredPlay play : plays) {
+            Location location = play.getLocation();
+            Location direction = play.getDirection();
+            int offset = direction == Location.HORIZONTAL ? 7 - location.getColumn() : 7 - location.getRow();
+            assertTrue(offset >= 0 && offset < play.getWord().length(), play.toString());
+        }
+    }
+
+    @Test
+    public void findsBingoWithBonus() {
+        ArrayList<ScoredPlay> plays = generator.generate(board, BoardTest.asCharList("hornets"));
+        ScoredPlay play = find(plays, "hornets", new Location(7, 1), Location.HORIZONTAL);
+        assertNotNull(play);
+        assertEquals(board.score("hornets", new Location(7, 1), Location.HORIZONTAL), play.getScore());
+    }
+
+    @Test
+    public void findsPlaysThroughExistingTiles() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        ArrayList<ScoredPlay> plays = generator.generate(board, BoardTest.asCharList("famxxxx"));
+        assertNotNull(find(plays, "fa m", new Location(5, 9), Location.VERTICAL));
+    }
+
+    @Test
+    public void usesBlanksAsAnyLetter() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        ArrayList<ScoredPlay> plays = generator.generate(board, BoardTest.asCharList("_"));
+        ScoredPlay play = find(plays, "    S", Location.CENTER, Location.HORIZONTAL);
+        assertNotNull(play);
+        assertEquals(7, play.getScore());
+    }
+
+    @Test
+    public void generatedPlaysAreLegalAndCorrectlyScored() throws IllegalMoveException {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        board.placeWord("fa m", new Location(5, 9), Location.VERTICAL);
+        ArrayList<Character> hand = BoardTest.asCharList("paste_e");
+        ArrayList<ScoredPlay> plays = generator.generate(board, hand);
+        assertFalse(plays.isEmpty());
+        for (ScoredPlay play : plays) {
+            board.verifyLegality(play.getWord(), play.getLocation(), play.getDirection(), hand);
+            assertEquals(board.score(play.getWord(), play.getLocation(), play.getDirection()), play.getScore());
+        }
+    }
+
+    /** Returns a description of a play, for comparing sets of plays. */
+    private static String describe(String word, Location location, Location direction) {
+        return word + " " + location + " " + direction;
+    }
+
+    /**
+     * Returns every play verifyLegality accepts on board from hand, found by trying every way of filling the empty
+     * squares of every line of squares with tiles from hand (and every letter for a blank).
+     */
+    private HashSet<String> bruteForce(ArrayList<Character> hand) {
+        HashSet<String> result = new HashSet<>();
+        for (int row = 0; row < Board.WIDTH; row++) {
+            for (int column = 0; column < Board.WIDTH; column++) {
+                for (Location direction : new Location[] {Location.HORIZONTAL, Location.VERTICAL}) {
+                    Location start = Location.of(row, column);
+                    StringBuilder pattern = new StringBuilder();
+                    int empty = 0;
+                    for (Location square = start; square.isOnBoard() && empty <= hand.size();
+                         square = square.neighbor(direction)) {
+                        boolean occupied = Character.isLetter(board.getSquare(square));
+                        pattern.append(occupied ? ' ' : '?');
+                        if (!occupied) {
+                            empty++;
+                        }
+                        if (empty > 0 && empty <= hand.size()) {
+                            fill(pattern.toString().toCharArray(), 0, new boolean[hand.size()], hand, start,
+                                    direction, result);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Fills the '?'s in word from index i on with the unused tiles in hand, adding each legal play to result. */
+    private void fill(char[] word, int i, boolean[] used, ArrayList<Character> hand, Location location,
+                      Location direction, HashSet<String> result) {
+        if (i == word.length) {
+            String play = new String(word);
+            try {
+                board.verifyLegality(play, location, direction, hand);
+                result.add(describe(play, location, direction));
+            } catch (IllegalMoveException e) {
+                // Not a legal play
+            }
+            return;
+        }
+        if (word[i] != '?') {
+            fill(word, i + 1, used, hand, location, direction, result);
+            return;
+        }
+        for (int t = 0; t < hand.size(); t++) {
+            if (!used[t]) {
+                used[t] = true;
+                if (hand.get(t) == '_') {
+                    for (char letter = 'A'; letter <= 'Z'; letter++) {
+                        word[i] = letter;
+                        fill(word, i + 1, used, hand, location, direction, result);
+                    }
+                } else {
+                    word[i] = hand.get(t);
+                    fill(word, i + 1, used, hand, location, direction, result);
+                }
+                word[i] = '?';
+                used[t] = false;
+            }
+        }
+    }
+
+    @Test
+    public void generatesExactlyTheLegalPlays() {
+        String[] hands = {"aest", "ei_", "rst"};
+        for (int seed = 1; seed <= 3; seed++) {
+            board = new Board(new Random(seed));
+            // Reach a position with a few words on the board
+            for (int ply = 0; ply < 3; ply++) {
+                ScoredPlay best = null;
+                for (ScoredPlay play : generator.generate(board, board.getHand(board.getCurrentPlayer()))) {
+                    if (best == null || play.getScore() > best.getScore()) {
+                        best = play;
+                    }
+                }
+                if (best != null) {
+                    board.placeWord(best.getWord(), best.getLocation(), best.getDirection());
+                }
+            }
+            ArrayList<Character> hand = BoardTest.asCharList(hands[seed - 1]);
+            HashSet<String> generated = new HashSet<>();
+            for (ScoredPlay play : generator.generate(board, hand)) {
+                generated.add(describe(play.getWord(), play.getLocation(), play.getDirection()));
+            }
+            assertEquals(bruteForce(hand), generated);
+        }
+    }
+
+    @Test
+    public void findsNothingWithoutUsefulTiles() {
+        board.placeWord("horn", Location.CENTER, Location.HORIZONTAL);
+        assertTrue(generator.generate(board, BoardTest.asCharList("qqq")).isEmpty());
+    }
+
+}
@@ -0,0 +1,138 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about one contestant's moves in a tournament: a histogram of the time taken by chooseMove, the number
+ * of calls made through its GateKeepers to check (verifyLegality, checkLegality, or tryScore) and score (score or
+ * tryScore) plays, and the number of plays generated for it by generateMoves.
+ *
+ * Every method may be called from any thread, and recording costs a few uncontended atomic operations, so the
+ * statistics can be gathered in every tournament. The histogram has 16 buckets per power of two, so percentiles are
+ * accurate to within about 6%.
+ */
+public class MoveStatistics {
+
+    /** log2 of the number of buckets per power of two. */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** Number of buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets, enough for any non-negative long. */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** For each bucket, the number of moves whose time (in nanoseconds) falls in it. */
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    /** Number of moves chosen. */
+    private final LongAdder moves = new LongAdder();
+
+    /** Longest time taken to choose a move, in nanoseconds. */
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+    /** Number of plays checked for legality. */
+    private final LongAdder legalityChecks = new LongAdder();
+
+    /** Number of plays scored. */
+    private final LongAdder scoreCalls = new LongAdder();
+
+    /** Number of plays returned by generateMoves. */
+    private final LongAdder generatedPlays = new LongAdder();
+
+    /** Records that a move took nanos nanoseconds to choose. */
+    public void recordMove(long nanos) {
+        nanos = Math.max(0, nanos);
+        histogram.incrementAndGet(bucket(nanos));
+        moves.increment();
+        maxTime.accumulate(nanos);
+    }
+
+    /** Counts a call to verifyLegality, checkLegality, or tryScore. */
+    public void countLegalityCheck() {
+        legalityChecks.increment();
+    }
+
+    /** Counts a call to score or tryScore. */
+    public void countScoreCall() {
+        scoreCalls.increment();
+    }
+
+    /** Counts n plays returned by generateMoves. */
+    public void countGeneratedPlays(long n) {
+        generatedPlays.add(n);
+    }
+
+    /** Returns the number of moves recorded. */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /** Returns the number of legality checks counted. */
+    public long getLegalityChecks() {
+        return legalityChecks.sum();
+    }
+
+    /** Returns the number of score calls counted. */
+    public long getScoreCalls() {
+        return scoreCalls.sum();
+    }
+
+    /** Returns the number of plays returned by generateMoves. */
+    public long getGeneratedPlays() {
+        return generatedPlays.sum();
+    }
+
+    /** Returns the longest time taken to choose a move, in nanoseconds. */
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    /**
+     * Returns (approximately) the time, in nanoseconds, within which the fraction p (between 0 and 1) of the moves
+     * were chosen, or 0 if no moves have been recorded.
+     */
+    public long getPercentile(double p) {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // The top of the bucket, but never more than the actual maximum
+                return Math.min(bucketStart(i + 1) - 1, getMaxTime());
+            }
+        }
+        return getMaxTime();
+    }
+
+    /** Returns the index of the bucket holding value. */
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /** Returns the smallest value in bucket i, or Long.MAX_VALUE if i is past the last bucket. */
+    static long bucketStart(int i) {
+        if (i >= BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        if (i < 2 * SUB_BUCKETS) {
+            return i;
+        }
+        int shift = i / SUB_BUCKETS - 1;
+        return (long) (i - shift * SUB_BUCKETS) << shift;
+    }
+
+}
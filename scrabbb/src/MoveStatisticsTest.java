@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveStatisticsTest {
+
+    @Test
+    public void bucketsCoverEveryValueInOrder() {
+        for (long value : new long[] {0, 1, 31, 32, 33, 1000, 123_456_789, Long.MAX_VALUE - 1}) {
+            int bucket = MoveStatistics.bucket(value);
+            assertTrue(MoveStatistics.bucketStart(bucket) <= value);
+            assertTrue(value < MoveStatistics.bucketStart(bucket + 1));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, MoveStatistics.bucket(MoveStatistics.bucketStart(i)));
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinBucketAccuracy() {
+        MoveStatistics statistics = new MoveStatistics();
+        assertEquals(0, statistics.getPercentile(0.5));
+        for (int i = 1; i <= 100; i++) {
+            statistics.recordMove(i * 1_000_000L);
+        }
+        assertEquals(100, statistics.getMoves());
+        assertEquals(100_000_000L, statistics.getMaxTime());
+        assertEquals(50_000_000L, statistics.getPercentile(0.5), 50_000_000L / 16);
+        assertEquals(99_000_000L, statistics.getPercentile(0.99), 99_000_000L / 16);
+        assertEquals(100_000_000L, statistics.getPercentile(1));
+    }
+
+    @Test
+    public void countsCallsThroughGateKeeper() throws IllegalMoveException {
+        MoveStatistics statistics = new MoveStatistics();
+        GateKeeper gateKeeper = new GateKeeper(new Board(), 0, statistics);
+        ArrayList<ScoredPlay> plays = gateKeeper.generateMoves();
+        ScoredPlay play = plays.get(0);
+        gateKeeper.verifyLegality(play.getWord(), play.getLocation(), play.getDirection());
+        gateKeeper.score(play.getWord(), play.getLocation(), play.getDirection());
+        char[] word = play.getWord().toCharArray();
+        gateKeeper.tryScore(play.getLocation().getRow(), play.getLocation().getColumn(),
+                Board.directionIndex(play.getDirection()), word, word.length);
+        assertEquals(2, statistics.getLegalityChecks());
+        assertEquals(2, statistics.getScoreCalls());
+        assertEquals(plays.size(), statistics.getGeneratedPlays());
+    }
+
+}
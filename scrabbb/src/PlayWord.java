@@ -20,10 +20,38 @@ public class PlayWord implements ScrabbleMove {
         this.direction = direction;
     }
 
+    /**
+     * Returns the word to be played.
+     *
+     * @see Board
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /** Returns the location of the first tile in the word. */
+    public Location getLocation() {
+        return location;
+    }
+
+    /** Returns the direction of the word: Location.HORIZONTAL or Location.VERTICAL. */
+    public Location getDirection() {
+        return direction;
+    }
+
     @Override
     public Location[] play(Board board, int playerNumber) throws IllegalMoveException {
         board.play(word, location, direction, board.getHand(playerNumber));
         return new Location[] {location, direction};
     }
 
+    @Override
+    public String toString() {
+        return "PlayWord{" +
+                "word='" + word + '\'' +
+                ", location=" + location +
+                ", direction=" + direction +
+                '}';
+    }
+
 }
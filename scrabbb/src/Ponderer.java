@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Works out a ScrabbleAI's legal plays ahead of time, while its opponent is thinking. A Ponderer guesses the
+ * positions the AI may face next: the opponent passing or exchanging (which leaves the board, as the AI sees it,
+ * unchanged), and, for random deals of the tiles the AI cannot see, each of the opponent's highest-scoring plays. For
+ * each position it remembers every legal play for the AI's hand, keyed by the position's hash as the AI sees it (see
+ * Board.getHash(int)).
+ *
+ * Given to a GateKeeper (see GateKeeper.setPonderer), the remembered plays are returned by generateMoves when the
+ * actual position matches one of the guesses, so a bot that generates its candidates that way can answer almost at
+ * once. Pondering works on its own copy of the Board, so the real Board may change while it runs.
+ */
+public class Ponderer {
+
+    /** Most positions remembered. */
+    public static final int MAX_POSITIONS = 1000;
+
+    /** Number of the opponent's highest-scoring plays tried for each deal of its hand. */
+    private static final int TOP_REPLIES = 5;
+
+    /** Exchanging no tiles, which is passing. */
+    private static final boolean[] PASS = new boolean[7];
+
+    /** Copy of the position in which the opponent is to move. */
+    private final Board position;
+
+    /** The AI's player number (0 or 1). */
+    private final int player;
+
+    /** Deals the opponent's hands. */
+    private final Random random;
+
+    /** Every legal play for the AI's hand in each position considered, by the position's hash. */
+    private final ConcurrentHashMap<Long, ArrayList<ScoredPlay>> moves = new ConcurrentHashMap<>();
+
+    /**
+     * @param position Copy of the position, with the opponent to move, as the AI sees it (such as from
+     *                 GateKeeper.sampleBoard). Only ponder uses it afterward.
+     * @param player The AI's player number (0 or 1).
+     * @param random Deals the opponent's hands.
+     */
+    public Ponderer(Board position, int player, Random random) {
+        this.position = position;
+        this.player = player;
+        this.random = random;
+    }
+
+    /**
+     * Considers likely positions until budget is exhausted (typically by cancelling it when the
+     * opponent moves) or MAX_POSITIONS positions are remembered. Each deal of the opponent's hand counts as one node.
+     */
+    public void ponder(SearchBudget budget) {
+        if (position.gameIsOver()) {
+            return;
+        }
+        MoveGenerator generator = new MoveGenerator(Board.getLexicon());
+        // A pass or exchange leaves the board as it is
+        Board board = position.sample(player, random);
+        board.makeExchange(PASS);
+        if (!board.gameIsOver()) {
+            remember(board, generator);
+        }
+        Comparator<ScoredPlay> byScore = Comparator.comparingInt(ScoredPlay::getScore).reversed();
+        while (!budget.isExhausted() && moves.size() < MAX_POSITIONS) {
+            board = position.sample(player, random);
+            ArrayList<ScoredPlay> replies = generator.generate(board, board.getHand(1 - player));
+            replies.sort(byScore);
+            for (int i = 0; i < Math.min(TOP_REPLIES, replies.size()) && !budget.isExhausted(); i++) {
+                ScoredPlay reply = replies.get(i);
+                char[] word = reply.getWord().toCharArray();
+                board.makeMove(reply.getLocation().getRow(), reply.getLocation().getColumn(),
+                        Board.directionIndex(reply.getDirection()), word, word.length);
+                if (!board.gameIsOver()) {
+                    remember(board, generator);
+                }
+                board.unmakeMove();
+            }
+            budget.addNodes(1);
+        }
+    }
+
+    /** Remembers the AI's legal plays on board, unless they are already known. */
+    private void remember(Board board, MoveGenerator generator) {
+        long hash = board.getHash(player);
+        if (!moves.containsKey(hash)) {
+            moves.put(hash, generator.generate(board, board.getHand(player)));
+        }
+    }
+
+    /**
+     * Returns a copy of the AI's legal plays in the position with the given hash (as the AI sees it), or null if
+     * that position has not been considered. Safe to call while ponder is running.
+     */
+    public ArrayList<ScoredPlay> getMoves(long hash) {
+        ArrayList<ScoredPlay> result = moves.get(hash);
+        return result == null ? null : new ArrayList<>(result);
+    }
+
+    /** Returns the number of positions remembered. */
+    public int size() {
+        return moves.size();
+    }
+
+}
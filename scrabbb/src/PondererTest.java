@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PondererTest {
+
+    /** Returns the highest-scoring of plays, the first of them if there is a tie. */
+    private static ScoredPlay best(ArrayList<ScoredPlay> plays) {
+        plays.sort(Comparator.comparingInt(ScoredPlay::getScore).reversed());
+        return plays.get(0);
+    }
+
+    /** Returns a Board, seeded with seed, on which player 0 has made its highest-scoring play. */
+    private static Board afterFirstMove(long seed) throws IllegalMoveException {
+        Board board = new Board(new Random(seed));
+        best(new GateKeeper(board, 0).generateMoves()).play(board, 0);
+        return board;
+    }
+
+    @Test
+    public void suppliesMovesAfterOpponentPasses() throws IllegalMoveException {
+        Board board = afterFirstMove(3);
+        GateKeeper gateKeeper = new GateKeeper(board, 0);
+        Ponderer ponderer = new Ponderer(gateKeeper.sampleBoard(new Random(1)), 0, new Random(2));
+        ponderer.ponder(new SearchBudget(SearchBudget.NO_TIME_LIMIT, 3));
+        assertTrue(ponderer.size() > 1);
+        board.makeExchange(new boolean[7]);
+        ArrayList<ScoredPlay> expected = gateKeeper.generateMoves();
+        gateKeeper.setPonderer(ponderer);
+        assertEquals(expected.toString(), gateKeeper.generateMoves().toString());
+        assertEquals(1, gateKeeper.getPonderedCalls());
+    }
+
+    @Test
+    public void suppliesMovesAfterLikelyReply() throws IllegalMoveException {
+        for (long seed = 3; seed < 6; seed++) {
+            Board position = new GateKeeper(afterFirstMove(seed), 0).sampleBoard(new Random(1));
+            Ponderer ponderer = new Ponderer(position, 0, new Random(2));
+            // Finishes the first deal of the opponent's hand
+            ponderer.ponder(new SearchBudget(SearchBudget.NO_TIME_LIMIT, 1));
+            // Deal the opponent the same hand ponder did for that deal: it first samples for the pass, then the deal
+            Random replay = new Random(2);
+            position.sample(0, replay);
+            Board board = position.sample(0, replay);
+            best(new GateKeeper(board, 1).generateMoves()).play(board, 1);
+            if (!board.gameIsOver()) {
+                ArrayList<ScoredPlay> pondered = ponderer.getMoves(board.getHash(0));
+                assertNotNull(pondered);
+                GateKeeper gateKeeper = new GateKeeper(board, 0);
+                String expected = gateKeeper.generateMoves().toString();
+                assertEquals(expected, pondered.toString());
+                gateKeeper.setPonderer(ponderer);
+                assertEquals(expected, gateKeeper.generateMoves().toString());
+                assertEquals(1, gateKeeper.getPonderedCalls());
+            }
+        }
+    }
+
+    @Test
+    public void generatesUnconsideredPositions() throws IllegalMoveException {
+        Board board = afterFirstMove(3);
+        GateKeeper gateKeeper = new GateKeeper(board, 0);
+        Ponderer ponderer = new Ponderer(gateKeeper.sampleBoard(new Random(1)), 0, new Random(2));
+        SearchBudget budget = SearchBudget.unlimited();
+        budget.cancel();
+        ponderer.ponder(budget);
+        // Only the pass was considered
+        gateKeeper.setPonderer(ponderer);
+        best(new GateKeeper(board, 1).generateMoves()).play(board, 1);
+        assertFalse(gateKeeper.generateMoves().isEmpty());
+        assertEquals(0, gateKeeper.getPonderedCalls());
+    }
+
+    @Test
+    public void stopsWhenCancelled() throws IllegalMoveException {
+        Board board = afterFirstMove(3);
+        Ponderer ponderer = new Ponderer(board.sample(0, new Random(1)), 0, new Random(2));
+        SearchBudget budget = SearchBudget.unlimited();
+        budget.cancel();
+        ponderer.ponder(budget);
+        assertEquals(1, ponderer.size());
+    }
+
+}
@@ -0,0 +1,27 @@
+/** A PlayWord together with the points it scores. */
+public class ScoredPlay extends PlayWord {
+
+    /** Points scored by this play, including cross words and any bingo bonus. */
+    private final int score;
+
+    public ScoredPlay(String word, Location location, Location direction, int score) {
+        super(word, location, direction);
+        this.score = score;
+    }
+
+    /** Returns the points scored by this play. */
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoredPlay{" +
+                "word='" + getWord() + '\'' +
+                ", location=" + getLocation() +
+                ", direction=" + getDirection() +
+                ", score=" + score +
+                '}';
+    }
+
+}
@@ -1,9 +1,21 @@
 import java.awt.*;
+import java.awt.event.KeyEvent;
 import static java.awt.event.KeyEvent.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /** GUI allowing a human to play against a ScrabbleAI. To change the AI, edit the constructor. */
 public class Scrabble {
@@ -22,6 +34,12 @@ public class Scrabble {
 
     private static final Color TILE_COLOR = new Color(251, 224, 174);
 
+    /** Time the AI is given for each move, in milliseconds, unless another is specified. */
+    private static final long DEFAULT_AI_TIME_LIMIT = 3000;
+
+    /** Time between redraws while the AI is thinking, in milliseconds. */
+    private static final long FRAME_TIME = 100;
+
     /** Keys that the user might press. */
     private static final List<Integer> KEYS = new ArrayList<>();
 
@@ -95,19 +113,75 @@ public class Scrabble {
     /** Opponent. */
     private ScrabbleAI ai;
 
+    /** The AI's GateKeeper. */
+    private GateKeeper gateKeeper;
+
+    /** Limits the AI's pondering during the user's turn; cancelled when the user moves. Null if not pondering. */
+    private SearchBudget ponderBudget;
+
+    /** Time the AI is given for each move, in milliseconds. */
+    private final long aiTimeLimit;
+
+    /** Keys pressed by the user and not yet handled, put here by the AWT event thread. */
+    private final BlockingQueue<Integer> keys = new LinkedBlockingQueue<>();
+
+    /** Runs the AI, so the window keeps being redrawn while it thinks. */
+    private final ExecutorService opponent = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "opponent");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Fraction (0 to 1) of the AI's time used so far on its current move. */
+    private double thinkingProgress;
+
+    // What the last frame showed, so draw can skip what has not changed
+
+    /** Square drawn at each position (row * Board.WIDTH + column), or null before the first frame. */
+    private char[] drawnSquares;
+
+    /** Location of the board cursor drawn, or null if none was drawn. */
+    private Location drawnCursor;
+
+    private Location drawnCursorDirection;
+
+    private String drawnHands;
+
+    private String drawnScores;
+
+    private String drawnInstructions;
+
     public Scrabble() {
+        this(DEFAULT_AI_TIME_LIMIT);
+    }
+
+    /** @param aiTimeLimit Time the AI is given for each move, in milliseconds. */
+    public Scrabble(long aiTimeLimit) {
+        this.aiTimeLimit = aiTimeLimit;
         board = new Board();
-        ai = new Incrementalist(); // Opponent
-        ai.setGateKeeper(new GateKeeper(board, 0));
+        // Opponent; it answers as soon as its plays are generated, which pondering usually does in advance
+        ai = new Maximizer();
+        gateKeeper = new GateKeeper(board, 0);
+        ai.setGateKeeper(gateKeeper);
         mode = Mode.AI_PLAYING;
     }
 
-    public static void main(String[] args) throws IllegalMoveException {
-        new Scrabble().run();
+    /** @param args Optionally, the time the AI is given for each move, in milliseconds. */
+    public static void main(String[] args) throws IllegalMoveException, InterruptedException {
+        // Load the dictionary while the window opens; nothing waits for it until a play is checked
+        Board.warmUpLexicon();
+        new Scrabble(args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_AI_TIME_LIMIT).run();
     }
 
     /** Runs the game. Crashes if the AI opponent plays an illegal move. */
-    private void run() throws IllegalMoveException {
+    private void run() throws IllegalMoveException, InterruptedException {
+        // Receive every key press as an event, alongside StdDraw, which still gets them too
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(event -> {
+            if (event.getID() == KeyEvent.KEY_PRESSED) {
+                keyPressed(event);
+            }
+            return false;
+        });
         StdDraw.setCanvasSize(805, 525);
         StdDraw.setXscale(-1.5, 23.5);
         StdDraw.setYscale(-1.5, 15.5);
@@ -117,8 +191,9 @@ public class Scrabble {
         draw();
         while (mode != Mode.GAME_OVER) {
             if (mode == Mode.AI_PLAYING) {
-                draw();
-                Location[] place = ai.chooseMove().play(board, 0);
+                Location[] place = chooseAiMove().play(board, 0);
+                // Ignore anything typed while the AI was thinking
+                keys.clear();
                 if (place != null) {
                     boardCursor = place[0];
                     boardCursorDirection = place[1];
@@ -127,6 +202,7 @@ public class Scrabble {
                     mode = Mode.GAME_OVER;
                 } else {
                     enterBoardMode();
+                    startPondering();
                 }
                 draw();
             } else {
@@ -136,6 +212,48 @@ public class Scrabble {
         }
     }
 
+    /**
+     * Has the AI choose a move on the opponent thread, redrawing the window with its progress until it is done. The
+     * Board is not changed while the AI thinks, so drawing it meanwhile is safe.
+     */
+    private ScrabbleMove chooseAiMove() throws InterruptedException {
+        if (ponderBudget != null) {
+            // The opponent thread finishes pondering before it starts on the move
+            ponderBudget.cancel();
+            ponderBudget = null;
+        }
+        SearchBudget budget = new SearchBudget(aiTimeLimit);
+        Future<ScrabbleMove> chosen = opponent.submit(() -> ai.chooseMove(budget));
+        long start = System.currentTimeMillis();
+        while (true) {
+            thinkingProgress = Math.min(1, (double) (System.currentTimeMillis() - start) / aiTimeLimit);
+            draw();
+            try {
+                ScrabbleMove move = chosen.get(FRAME_TIME, TimeUnit.MILLISECONDS);
+                // Release the pondered plays; they are for positions that have passed
+                gateKeeper.setPonderer(null);
+                return move;
+            } catch (TimeoutException e) {
+                // Still thinking; redraw
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Opponent failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Starts the AI pondering on the opponent thread, during the user's turn, on a copy of the position as the AI
+     * sees it. If the user's move leads to a position it has considered, the AI's GateKeeper supplies the plays from
+     * there without generating them again.
+     */
+    private void startPondering() {
+        Ponderer ponderer = new Ponderer(gateKeeper.sampleBoard(new Random()), 0, new Random());
+        gateKeeper.setPonderer(ponderer);
+        SearchBudget budget = SearchBudget.unlimited();
+        ponderBudget = budget;
+        opponent.execute(() -> ponderer.ponder(budget));
+    }
+
     /** Prepare for the user to select tiles (if any) to exchange. */
     private void enterHandMode() {
         mode = Mode.HAND;
@@ -150,9 +268,9 @@ public class Scrabble {
     }
 
     /**
-     * Handles a key pressed by the user.
+     * Handles a key pressed by the user, waiting for one if necessary.
      */
-    private void handleKeyPress() {
+    private void handleKeyPress() throws InterruptedException {
         int c = getKeyPressed();
         if (mode == Mode.BOARD) {
             // Toggle board cursor direction
@@ -239,55 +357,136 @@ public class Scrabble {
         return (key >= 'a' && key <= 'z') || (key >= 'A' && key <= 'Z') || (key == VK_SPACE);
     }
 
-    /** Returns the key that the user pressed. Shift modifies letter keys in the usual way. */
-    private int getKeyPressed() {
-        while (true) {
-            for (int key : KEYS) {
-                if (StdDraw.isKeyPressed(key)) {
-                    int result = key;
-                    if (key >= 'A' && key <= 'Z') {
-                        if (!StdDraw.isKeyPressed(VK_SHIFT)) {
-                            result = Character.toLowerCase(key);
-                        }
-                    }
-                    while (StdDraw.isKeyPressed(key)) {
-                        // Wait for key to be released
-                    }
-                    return result;
-                }
-            }
+    /**
+     * Returns the next key that the user pressed, waiting (without using the processor) until there is one. Shift
+     * modifies letter keys in the usual way.
+     */
+    private int getKeyPressed() throws InterruptedException {
+        return keys.take();
+    }
+
+    /** Queues the key pressed in event, if it is one of KEYS. Called on the AWT event thread. */
+    private void keyPressed(KeyEvent event) {
+        int key = event.getKeyCode();
+        if (!KEYS.contains(key)) {
+            return;
+        }
+        if (key >= 'A' && key <= 'Z' && !event.isShiftDown()) {
+            key = Character.toLowerCase(key);
         }
+        keys.add(key);
     }
 
-    /** Draws the current state of the game, including instructions. */
+    /**
+     * Draws the current state of the game, including instructions, and shows it. Only the parts of the window that
+     * have changed since the last call are redrawn: StdDraw keeps the previous frame in its offscreen buffer, so the
+     * squares, hands, scores, and instructions that are unchanged are left as they are.
+     */
     private void draw() {
-        StdDraw.clear(TABLE_COLOR);
-        // Draw board
+        if (drawnSquares == null) {
+            // First frame: everything is drawn
+            StdDraw.clear(TABLE_COLOR);
+            drawnSquares = new char[Board.WIDTH * Board.WIDTH];
+        }
+        drawBoard();
+        drawHands();
+        drawScores();
+        drawInstructions();
+        StdDraw.show();
+    }
+
+    /** Draws the squares that have changed since the last frame, and the board cursor if it has moved. */
+    private void drawBoard() {
+        Location cursor = mode == Mode.BOARD ? boardCursor : null;
+        boolean cursorChanged = !Objects.equals(cursor, drawnCursor) || boardCursorDirection != drawnCursorDirection;
+        boolean[] redrawn = new boolean[Board.WIDTH * Board.WIDTH];
+        boolean cursorCovered = false;
         // The unusual backward ordering here has to do with overlapping outlines;
         // they produce a nice shadow effect when done in this order
         for (int r = Board.WIDTH - 1; r >= 0; r--) {
             for (int c = Board.WIDTH - 1; c >= 0; c--) {
-                // r and c are converted to x and y in this call
-                drawSquare(c, 14 - r, board.getSquare(new Location(r, c)), false, false, false);
+                int i = r * Board.WIDTH + c;
+                Location location = Location.of(r, c);
+                char square = board.getSquare(location);
+                if (square != drawnSquares[i]
+                        || (cursorChanged && (location.equals(cursor) || location.equals(drawnCursor)))) {
+                    // r and c are converted to x and y in this call
+                    drawSquare(c, 14 - r, square, false, false, false);
+                    drawnSquares[i] = square;
+                    redrawn[i] = true;
+                    cursorCovered |= location.equals(cursor);
+                } else if ((r + 1 < Board.WIDTH && redrawn[i + Board.WIDTH])
+                        || (c + 1 < Board.WIDTH && redrawn[i + 1])
+                        || (r + 1 < Board.WIDTH && c + 1 < Board.WIDTH && redrawn[i + Board.WIDTH + 1])) {
+                    // A square drawn earlier was redrawn over this one's outline, which must stay on top
+                    drawOutline(c, 14 - r, square, false);
+                }
             }
         }
-        // Draw hands
-        ArrayList<Character> hand = board.getHand(0);
+        if (cursor != null && cursorCovered) {
+            drawBoardCursor();
+        }
+        drawnCursor = cursor;
+        drawnCursorDirection = boardCursorDirection;
+    }
+
+    /** Redraws both hands if either has changed since the last frame. */
+    private void drawHands() {
+        StringBuilder state = new StringBuilder();
+        state.append(board.getHand(0)).append(board.getHand(1));
+        if (mode == Mode.HAND) {
+            state.append(handCursor).append(Arrays.toString(tilesToDiscard));
+        }
+        if (state.toString().equals(drawnHands)) {
+            return;
+        }
+        drawnHands = state.toString();
+        StdDraw.setPenColor(TABLE_COLOR);
+        StdDraw.filledRectangle(19, 14, 3.6, 0.6);
+        StdDraw.filledRectangle(19, 11, 3.6, 0.6);
+        TileRack hand = board.getHand(0);
         for (int i = 0; i < hand.size(); i++) {
             drawSquare(16 + i, 14, hand.get(i), false, false, true);
         }
         hand = board.getHand(1);
         for (int i = 0; i < hand.size(); i++) {
-            drawSquare(16 + i, 11, hand.get(i), mode == mode.HAND && handCursor == i,
-                    mode == mode.HAND && tilesToDiscard[i], false);
+            drawSquare(16 + i, 11, hand.get(i), mode == Mode.HAND && handCursor == i,
+                    mode == Mode.HAND && tilesToDiscard[i], false);
         }
+    }
+
+    /** Redraws the scores if they have changed since the last frame. */
+    private void drawScores() {
+        String state = board.getScore(0) + " " + board.getScore(1);
+        if (state.equals(drawnScores)) {
+            return;
+        }
+        drawnScores = state;
+        // Everything right of the board's edge, between the hands
+        StdDraw.setPenColor(TABLE_COLOR);
+        StdDraw.filledRectangle(19.03, 13, 4.47, 0.4);
+        StdDraw.filledRectangle(19.03, 10, 4.47, 0.4);
         StdDraw.setPenColor(Color.WHITE);
         StdDraw.setFont(INTERFACE_FONT);
         StdDraw.text(19, 13, "Opponent: " + board.getScore(0));
         StdDraw.text(19, 10, "You: " + board.getScore(1));
+    }
+
+    /** Redraws the word being constructed and the instructions if they have changed since the last frame. */
+    private void drawInstructions() {
+        String state = mode + " " + wordBeingConstructed;
+        if (mode == Mode.AI_PLAYING) {
+            // The progress bar changes in steps of a pixel or so
+            state += " " + Math.round(thinkingProgress * 200);
+        }
+        if (state.equals(drawnInstructions)) {
+            return;
+        }
+        drawnInstructions = state;
+        StdDraw.setPenColor(TABLE_COLOR);
+        // Everything right of the board's edge, below the hands
+        StdDraw.filledRectangle(19.03, 4.5, 4.47, 4.1);
         if (mode == Mode.BOARD) {
-            // Draw cursor
-            drawBoardCursor();
             // Draw word being constructed
             StdDraw.setPenColor(Color.WHITE);
             StdDraw.setFont(TYPING_FONT);
@@ -324,8 +523,10 @@ public class Scrabble {
             StdDraw.setPenColor(Color.WHITE);
             StdDraw.setFont(INTERFACE_FONT);
             StdDraw.text(19, 6, "Opponent thinking...");
+            // Progress bar for the AI's time limit
+            StdDraw.rectangle(19, 5, 3, 0.2);
+            StdDraw.filledRectangle(16 + 3 * thinkingProgress, 5, 3 * thinkingProgress, 0.2);
         }
-        StdDraw.show();
     }
 
     /** Draws the board cursor. */
@@ -347,6 +548,22 @@ public class Scrabble {
         StdDraw.polygon(xs, ys);
     }
 
+    /**
+     * Draws the outline of the square or tile at position x, y.
+     *
+     * @param outlined True if this is the current tile in the hand when selecting tiles to exchange.
+     */
+    private void drawOutline(int x, int y, char square, boolean outlined) {
+        if (outlined) {
+            StdDraw.setPenColor(Color.WHITE);
+        } else if (Character.isAlphabetic(square) || square == '_') {
+            StdDraw.setPenColor(Color.BLACK);
+        } else {
+            StdDraw.setPenColor(Color.WHITE);
+        }
+        StdDraw.square(x, y, 0.5);
+    }
+
     /**
      * Draws one square or tile at position x, y. @see Board
      *
@@ -365,22 +582,14 @@ public class Scrabble {
                 StdDraw.setFont(LETTER_FONT);
                 StdDraw.text(x, y, ("" + square).toUpperCase());
                 StdDraw.setFont(VALUE_FONT);
-                StdDraw.text(x + 0.3, y - 0.3, "" + Board.TILE_VALUES.get(square));
+                StdDraw.text(x + 0.3, y - 0.3, "" + Board.getValue(square));
             } else if (square >= 'A' && square <= 'Z') {
                 StdDraw.setPenColor(Color.RED);
                 StdDraw.setFont(LETTER_FONT);
                 StdDraw.text(x, y, ("" + square).toUpperCase());
             }
         }
-        // Draw outline
-        if (outlined) {
-            StdDraw.setPenColor(Color.WHITE);
-        } else if (Character.isAlphabetic(square) || square == '_') {
-            StdDraw.setPenColor(Color.BLACK);
-        } else {
-            StdDraw.setPenColor(Color.WHITE);
-        }
-        StdDraw.square(x, y, 0.5);
+        drawOutline(x, y, square, outlined);
         // Draw slash
         if (crossedOut) {
             StdDraw.setPenColor(Color.BLACK);
@@ -14,4 +14,13 @@ public interface ScrabbleAI {
      */
     public ScrabbleMove chooseMove();
 
+    /**
+     * Returns a good move, searching no further than budget allows. When the budget is exhausted the AI should
+     * return the best move it has found so far. By default, ignores the budget and calls chooseMove(), which is
+     * fine for AIs that always answer quickly.
+     */
+    public default ScrabbleMove chooseMove(SearchBudget budget) {
+        return chooseMove();
+    }
+
 }
@@ -0,0 +1,134 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for a ScrabbleServer on this machine. Each simulated client opens its own connection and plays a
+ * number of games, always making the play suggested by HINT, or exchanging its whole hand if there is none. Reports
+ * the games and moves completed per second and the latency of the moves (each including the bot's reply), as one
+ * line of JSON.
+ */
+public class ScrabbleLoadGenerator {
+
+    /** Stack size for client threads; there may be thousands of them. */
+    private static final long CLIENT_STACK_SIZE = 256 * 1024;
+
+    /** Port of the server. */
+    private final int port;
+
+    /** Latencies of PLAY and EXCHANGE requests. */
+    private final MoveStatistics moves = new MoveStatistics();
+
+    /** Number of games completed. */
+    private final LongAdder games = new LongAdder();
+
+    /** @param port Port of the server, on the loopback interface. */
+    public ScrabbleLoadGenerator(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Runs the load generator and prints its summary.
+     *
+     * @param args The number of clients, then optionally the games each plays (default: 1) and the port of the
+     *             server (default: ScrabbleServer.DEFAULT_PORT).
+     */
+    public static void main(String[] args) throws IOException {
+        int clients = Integer.parseInt(args[0]);
+        int gamesPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : ScrabbleServer.DEFAULT_PORT;
+        StdOut.println(new ScrabbleLoadGenerator(port).run(clients, gamesPerClient));
+    }
+
+    /**
+     * Has the given number of clients play gamesPerClient games each, all at once, and returns a one-line JSON
+     * summary. Times are in milliseconds.
+     */
+    public String run(int clients, int gamesPerClient) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients, r -> {
+            Thread thread = new Thread(null, r, "client", CLIENT_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            ArrayList<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                running.add(pool.submit(() -> {
+                    playGames(gamesPerClient);
+                    return null;
+                }));
+            }
+            for (Future<?> client : running) {
+                try {
+                    client.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new IOException("Client failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return String.format(Locale.ROOT, "{\"clients\": %d, \"games\": %d, \"moves\": %d, \"seconds\": %.3f, "
+                + "\"gamesPerSecond\": %.3f, \"movesPerSecond\": %.3f, \"p50Ms\": %.3f, \"p99Ms\": %.3f, "
+                + "\"maxMs\": %.3f}", clients, games.sum(), moves.getMoves(), seconds, games.sum() / seconds,
+                moves.getMoves() / seconds, moves.getPercentile(0.5) / 1e6, moves.getPercentile(0.99) / 1e6,
+                moves.getMaxTime() / 1e6);
+    }
+
+    /** Connects to the server and plays the given number of games. */
+    private void playGames(int count) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            socket.setTcpNoDelay(true);
+            for (int g = 0; g < count; g++) {
+                request(in, out, "JOIN");
+                boolean over = false;
+                while (!over) {
+                    String hint = request(in, out, "HINT");
+                    String move;
+                    if (hint.equals("HINT NONE")) {
+                        move = "EXCHANGE " + request(in, out, "RACK").substring("RACK ".length());
+                    } else {
+                        String[] fields = hint.split(" ");
+                        move = "PLAY " + fields[1] + " " + fields[2] + " " + fields[3] + " " + fields[4];
+                    }
+                    long start = System.nanoTime();
+                    String reply = request(in, out, move);
+                    moves.recordMove(System.nanoTime() - start);
+                    over = reply.endsWith(" OVER");
+                }
+                games.increment();
+            }
+            request(in, out, "QUIT");
+        }
+    }
+
+    /** Sends request and returns the response, throwing an IOException if it is an error. */
+    private static String request(BufferedReader in, PrintWriter out, String request) throws IOException {
+        out.println(request);
+        String response = in.readLine();
+        if (response == null || response.startsWith("ERROR")) {
+            throw new IOException(request + ": " + response);
+        }
+        return response;
+    }
+
+}
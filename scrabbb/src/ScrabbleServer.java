@@ -0,0 +1,339 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Headless server hosting games between clients and a ScrabbleAI, over a line-based text protocol on a local TCP
+ * socket. Each connection is a session that plays one game at a time, as player 0 (moving first), against its own
+ * bot. Every request is one line, answered by one line:
+ *
+ * <pre>
+ * JOIN                               JOINED game            Starts a new game, abandoning any current one
+ * RACK                               RACK tiles             The client's hand, such as "aeinr_s"
+ * STATE                              STATE yourScore botScore bagSize TURN|OVER rows
+ * PLAY word row column ACROSS|DOWN   OK points reply TURN|OVER
+ * EXCHANGE tiles                     OK 0 reply TURN|OVER   Tiles from the hand, such as "qvv"; "-" passes
+ * HINT                               HINT word row column ACROSS|DOWN points, or HINT NONE
+ * QUIT                               BYE
+ * </pre>
+ *
+ * Words are written as for Board: lower case for tiles, upper case for blanks, and "." (instead of a space) for
+ * squares already occupied. In STATE, rows are the 15 rows of the board separated by "/", with "." for an empty
+ * square without a premium. The bot's reply is "PLAY word row column ACROSS|DOWN points", "EXCHANGE", or "NONE" if
+ * the game ended before its turn. A request that cannot be carried out is answered "ERROR message".
+ *
+ * Each session runs on its own small-stack thread, so the number of sessions is limited only by memory. The bots
+ * choose moves on a bounded pool of threads, and each bot move has a SearchBudget that starts when the move is
+ * requested, so time spent queueing for the pool counts against it. Only bots that honor the budget (such as
+ * Simulator and EndgameSolver) answer faster under load; the default Incrementalist ignores it, as it always
+ * answers quickly.
+ */
+public class ScrabbleServer {
+
+    /** Port used if none is specified. */
+    public static final int DEFAULT_PORT = 5050;
+
+    /** Stack size for session threads; sessions need little, and there may be thousands of them. */
+    private static final long SESSION_STACK_SIZE = 256 * 1024;
+
+    /** Makes a bot for each game. */
+    private final Supplier<ScrabbleAI> bots;
+
+    /** Time each bot move may take, in milliseconds, including time spent waiting for the bot pool. */
+    private final long botTimeLimit;
+
+    /** Runs the bots' chooseMove calls. */
+    private final ExecutorService botPool;
+
+    /** Runs the sessions, one thread each. */
+    private final ExecutorService sessions;
+
+    /** Number of games started, used to number them. */
+    private final AtomicInteger gamesStarted = new AtomicInteger();
+
+    /** Accepts connections, once started. */
+    private ServerSocket serverSocket;
+
+    /**
+     * @param bots Makes a bot for each game.
+     * @param botThreads Number of threads on which bots choose moves.
+     * @param botTimeLimit Time each bot move may take, in milliseconds.
+     */
+    public ScrabbleServer(Supplier<ScrabbleAI> bots, int botThreads, long botTimeLimit) {
+        this.bots = bots;
+        this.botTimeLimit = botTimeLimit;
+        botPool = Executors.newFixedThreadPool(botThreads);
+        AtomicInteger threads = new AtomicInteger();
+        sessions = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(null, r, "session-" + threads.incrementAndGet(), SESSION_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a server until the process is killed.
+     *
+     * @param args Optionally, the port (default: DEFAULT_PORT), the number of bot threads (default: one per
+     *             processor), then the time each bot move may take in milliseconds (default: 1000).
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int botThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long botTimeLimit = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        Board.warmUpLexicon();
+        ScrabbleServer server = new ScrabbleServer(Incrementalist::new, botThreads, botTimeLimit);
+        StdOut.println("Listening on port " + server.start(port));
+    }
+
+    /**
+     * Starts accepting connections on the loopback interface, on a background thread. Returns the port, which is
+     * chosen by the system if port is 0.
+     */
+    public int start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 1000, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptConnections, "acceptor");
+        acceptor.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /** Stops accepting connections, closes the sessions, and stops the bots. */
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+        botPool.shutdownNow();
+    }
+
+    /** Accepts connections until the server socket is closed, starting a session for each. */
+    private void acceptConnections() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                sessions.execute(new Session(socket));
+            }
+        } catch (IOException e) {
+            // The server socket was closed
+        }
+    }
+
+    /** One client's connection, and the game it is playing. */
+    private class Session implements Runnable {
+
+        /** Connection to the client. */
+        private final Socket socket;
+
+        /** The game being played, or null before the first JOIN. */
+        private Board board;
+
+        /** The client's opponent. */
+        private ScrabbleAI bot;
+
+        /** Finds hints for the client. */
+        private GateKeeper client;
+
+        Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (socket;
+                 BufferedReader in = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                socket.setTcpNoDelay(true);
+                for (String line = in.readLine(); line != null; line = in.readLine()) {
+                    String[] request = line.trim().split("\\s+");
+                    if (request[0].equalsIgnoreCase("QUIT")) {
+                        out.println("BYE");
+                        return;
+                    }
+                    out.println(respond(request));
+                }
+            } catch (IOException e) {
+                // The client disconnected
+            }
+        }
+
+        /** Carries out request and returns the response. */
+        private String respond(String[] request) {
+            String command = request[0].toUpperCase();
+            if (command.equals("JOIN")) {
+                return join();
+            }
+            if (board == null) {
+                return "ERROR No game; send JOIN";
+            }
+            try {
+                switch (command) {
+                    case "RACK":
+                        return "RACK " + tiles(board.getHand(0));
+                    case "STATE":
+                        return state();
+                    case "HINT":
+                        return hint();
+                    case "PLAY":
+                        if (request.length != 5) {
+                            return "ERROR Usage: PLAY word row column ACROSS|DOWN";
+                        }
+                        return move(new PlayWord(request[1].replace('.', ' '),
+                                Location.of(Integer.parseInt(request[2]), Integer.parseInt(request[3])),
+                                direction(request[4])));
+                    case "EXCHANGE":
+                        if (request.length != 2) {
+                            return "ERROR Usage: EXCHANGE tiles";
+                        }
+                        return move(new ExchangeTiles(tilesToExchange(request[1])));
+                    default:
+                        return "ERROR Unknown command " + request[0];
+                }
+            } catch (IllegalMoveException | IllegalArgumentException | IllegalStateException e) {
+                return "ERROR " + e.getMessage();
+            }
+        }
+
+        /** Starts a new game. */
+        private String join() {
+            board = new Board(new Random());
+            bot = bots.get();
+            bot.setGateKeeper(new GateKeeper(board, 1));
+            client = new GateKeeper(board, 0);
+            return "JOINED " + gamesStarted.incrementAndGet();
+        }
+
+        /** Plays the client's move, then the bot's reply if the game is not over. */
+        private String move(ScrabbleMove move) throws IllegalMoveException {
+            if (board.gameIsOver()) {
+                return "ERROR Game over";
+            }
+            int before = board.getScore(0);
+            move.play(board, 0);
+            StringBuilder result = new StringBuilder("OK ").append(board.getScore(0) - before).append(' ');
+            if (board.gameIsOver()) {
+                result.append("NONE");
+            } else {
+                result.append(botMove());
+            }
+            return result.append(board.gameIsOver() ? " OVER" : " TURN").toString();
+        }
+
+        /** Has the bot choose a move on the bot pool, plays it, and returns its description. */
+        private String botMove() throws IllegalMoveException {
+            SearchBudget budget = new SearchBudget(botTimeLimit);
+            Future<ScrabbleMove> chosen = botPool.submit(() -> bot.chooseMove(budget));
+            ScrabbleMove move;
+            try {
+                move = chosen.get();
+            } catch (InterruptedException e) {
+                budget.cancel();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while the bot was thinking");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Bot failed: " + e.getCause());
+            }
+            int before = board.getScore(1);
+            move.play(board, 1);
+            if (move instanceof PlayWord) {
+                PlayWord play = (PlayWord) move;
+                return "PLAY " + describe(play.getWord(), play.getLocation(), play.getDirection()) + " "
+                        + (board.getScore(1) - before);
+            }
+            return "EXCHANGE";
+        }
+
+        /** Returns the client's highest-scoring play. */
+        private String hint() {
+            ScoredPlay best = null;
+            for (ScoredPlay play : client.generateMoves()) {
+                if (best == null || play.getScore() > best.getScore()) {
+                    best = play;
+                }
+            }
+            if (best == null) {
+                return "HINT NONE";
+            }
+            return "HINT " + describe(best.getWord(), best.getLocation(), best.getDirection()) + " "
+                    + best.getScore();
+        }
+
+        /** Returns the STATE response. */
+        private String state() {
+            StringBuilder result = new StringBuilder("STATE ");
+            result.append(board.getScore(0)).append(' ').append(board.getScore(1)).append(' ')
+                    .append(board.getBagSize()).append(board.gameIsOver() ? " OVER " : " TURN ");
+            for (int row = 0; row < Board.WIDTH; row++) {
+                if (row > 0) {
+                    result.append('/');
+                }
+                for (int column = 0; column < Board.WIDTH; column++) {
+                    char square = board.getSquare(row, column);
+                    result.append(square == Board.NO_PREMIUM ? '.' : square);
+                }
+            }
+            return result.toString();
+        }
+
+        /** Returns the array of seven booleans for exchanging the named tiles from the client's hand. */
+        private boolean[] tilesToExchange(String tiles) {
+            boolean[] result = new boolean[7];
+            if (tiles.equals("-")) {
+                return result;
+            }
+            TileRack hand = board.getHand(0);
+            for (char tile : tiles.toCharArray()) {
+                boolean found = false;
+                for (int i = 0; i < hand.size() && !found; i++) {
+                    if (!result[i] && hand.get(i) == tile) {
+                        result[i] = true;
+                        found = true;
+                    }
+                }
+                if (!found) {
+                    throw new IllegalArgumentException("Hand does not contain " + tiles);
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /** Returns the direction named by name, ACROSS or DOWN. */
+    private static Location direction(String name) {
+        if (name.equalsIgnoreCase("ACROSS")) {
+            return Location.HORIZONTAL;
+        }
+        if (name.equalsIgnoreCase("DOWN")) {
+            return Location.VERTICAL;
+        }
+        throw new IllegalArgumentException("Direction must be ACROSS or DOWN");
+    }
+
+    /** Returns word, location, and direction as written in the protocol: "word row column ACROSS|DOWN". */
+    static String describe(String word, Location location, Location direction) {
+        return word.replace(' ', '.') + " " + location.getRow() + " " + location.getColumn() + " "
+                + (direction.equals(Location.HORIZONTAL) ? "ACROSS" : "DOWN");
+    }
+
+    /** Returns the tiles in hand as a string. */
+    private static String tiles(List<Character> hand) {
+        StringBuilder result = new StringBuilder();
+        for (char tile : hand) {
+            result.append(tile);
+        }
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScrabbleServerTest {
+
+    private ScrabbleServer server;
+
+    private int port;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new ScrabbleServer(Incrementalist::new, 2, 1000);
+        port = server.start(0);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void playsGameOverProtocol() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println("RACK");
+            assertTrue(in.readLine().startsWith("ERROR"));
+            out.println("JOIN");
+            assertTrue(in.readLine().startsWith("JOINED "));
+            out.println("RACK");
+            assertEquals(7 + "RACK ".length(), in.readLine().length());
+            out.println("PLAY zzz 7 7 ACROSS");
+            assertTrue(in.readLine().startsWith("ERROR"));
+            out.println("HINT");
+            String[] hint = in.readLine().split(" ");
+            out.println("PLAY " + hint[1] + " " + hint[2] + " " + hint[3] + " " + hint[4]);
+            String[] reply = in.readLine().split(" ");
+            assertEquals("OK", reply[0]);
+            assertEquals(hint[5], reply[1]);
+            assertEquals("PLAY", reply[2]);
+            assertEquals("TURN", reply[reply.length - 1]);
+            out.println("STATE");
+            String[] state = in.readLine().split(" ");
+            assertEquals(hint[5], state[1]);
+            assertEquals(reply[7], state[2]);
+            assertEquals(15, state[5].split("/").length);
+            out.println("QUIT");
+            assertEquals("BYE", in.readLine());
+        }
+    }
+
+    @Test
+    public void loadGeneratorCompletesGames() throws IOException {
+        String summary = new ScrabbleLoadGenerator(port).run(3, 1);
+        assertTrue(summary.contains("\"games\": 3,"));
+    }
+
+}
@@ -1,40 +1,284 @@
-/** A tournament between ScrabbleAIs. Edit the constructor to change the contestants. */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * A tournament between ScrabbleAIs. Edit the constructor to change the contestants.
+ *
+ * Games can be spread over a pool of worker threads. Each game gets its own ScrabbleAI instances (from the
+ * contestants' factories) and its own seeded Board, and its results are reported in a fixed order, so a tournament
+ * run with the same seed gives the same output however many threads play it.
+ */
 public class ScrabbleTournament {
 
-    /** Contestants. */
-    private ScrabbleAI[] players;
+    /** Factories for the contestants. Each game gets fresh instances, so no ScrabbleAI is shared between games. */
+    private List<Supplier<ScrabbleAI>> contestants;
+
+    /** Names of the contestants, for reporting, in the same order. */
+    private final List<String> names = new ArrayList<>();
+
+    /** Time allowed for each move, in milliseconds, or SearchBudget.NO_TIME_LIMIT. */
+    private long moveTimeLimit = SearchBudget.NO_TIME_LIMIT;
+
+    /** Nodes allowed for each move, or SearchBudget.NO_NODE_LIMIT. */
+    private long moveNodeLimit = SearchBudget.NO_NODE_LIMIT;
 
     public ScrabbleTournament() {
         // List contestants here
-        players = new ScrabbleAI[] {
-          new Incrementalist(),
-          new Incrementalist()
-        };
+        contestants = List.of(
+          Incrementalist::new,
+          Incrementalist::new
+        );
+        // Each factory is called once here to learn its class, rather than every time a name is reported
+        for (int i = 0; i < contestants.size(); i++) {
+            names.add(contestants.get(i).get().getClass().getSimpleName() + " " + i);
+        }
+    }
+
+    /**
+     * Runs the tournament or, if the first argument is "leaves", plays games to train a LeaveTable.
+     *
+     * @param args Optionally, the number of worker threads (default: one per processor), the seed (default:
+     *             random), the time allowed per move in milliseconds, then the nodes allowed per move (default: no
+     *             limit, leaving each AI to its own limits). To train a LeaveTable instead: "leaves", the number of
+     *             games, the file to write it to (such as LeaveTable.DEFAULT_FILENAME), then optionally the number of
+     *             threads and the seed. To play all the games at once (see runConcurrently), put "concurrent" before
+     *             the other arguments.
+     */
+    public static void main(String[] args) throws IllegalMoveException, IOException {
+        if (args.length > 0 && args[0].equals("leaves")) {
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            long seed = args.length > 4 ? Long.parseLong(args[4]) : new Random().nextLong();
+            new ScrabbleTournament().trainLeaves(Integer.parseInt(args[1]), threads, seed, args[2]);
+            return;
+        }
+        boolean concurrently = args.length > 0 && args[0].equals("concurrent");
+        if (concurrently) {
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : new Random().nextLong();
+        ScrabbleTournament tournament = new ScrabbleTournament();
+        tournament.setMoveBudget(args.length > 2 ? Long.parseLong(args[2]) : SearchBudget.NO_TIME_LIMIT,
+                args.length > 3 ? Long.parseLong(args[3]) : SearchBudget.NO_NODE_LIMIT);
+        if (concurrently) {
+            tournament.runConcurrently(threads, seed);
+        } else {
+            tournament.run(threads, seed);
+        }
     }
 
-    public static void main(String[] args) throws IllegalMoveException {
-        new ScrabbleTournament().run();
+    /**
+     * Limits the search for every move: each chooseMove is given a fresh SearchBudget with these limits. With no
+     * limits (the default), AIs that search use their own default time limits.
+     *
+     * @param timeLimit Time allowed per move in milliseconds, or SearchBudget.NO_TIME_LIMIT.
+     * @param nodeLimit Nodes allowed per move, or SearchBudget.NO_NODE_LIMIT.
+     */
+    public void setMoveBudget(long timeLimit, long nodeLimit) {
+        moveTimeLimit = timeLimit;
+        moveNodeLimit = nodeLimit;
     }
 
     /**
-     * Plays two games between each pair of contestants, one with each going first. Prints the number of wins for
-     * each contestant (including 0.5 wins for each tie).
+     * Plays two games between each pair of contestants, one with each going first, on this thread. Prints the number
+     * of wins for each contestant (including 0.5 wins for each tie).
      */
     public void run() throws IllegalMoveException {
-        double[] scores = new double[players.length];
-        for (int i = 0; i < players.length; i++) {
-            for (int j = 0; j < players.length; j++) {
+        run(1, new Random().nextLong());
+    }
+
+    /**
+     * Plays two games between each pair of contestants, one with each going first, using the specified number of
+     * worker threads. Prints a report of each game, in a fixed order, followed by the number of wins for each
+     * contestant (including 0.5 wins for each tie) and a one-line JSON summary (see summary) of the wins, the time
+     * each contestant took to choose its moves, and the rate at which games and moves were played.
+     *
+     * @param seed Determines the tiles drawn in every game.
+     */
+    public void run(int threads, long seed) throws IllegalMoveException {
+        run(threads, seed, false);
+    }
+
+    /**
+     * Plays the same games as run(threads, seed), with the same results, but all at once: every game is started with
+     * playGameAsync, and the contestants choose their moves as tasks on the worker threads.
+     */
+    public void runConcurrently(int threads, long seed) throws IllegalMoveException {
+        run(threads, seed, true);
+    }
+
+    /**
+     * Does the work of run or, if concurrently is true, runConcurrently.
+     */
+    private void run(int threads, long seed, boolean concurrently) throws IllegalMoveException {
+        // The dictionary loads while the games are laid out and the first contestants are created
+        Board.warmUpLexicon();
+        StdOut.println("Seed: " + seed);
+        // Lay out the games, each with its own seed, before any are played
+        ArrayList<int[]> pairings = new ArrayList<>();
+        for (int i = 0; i < contestants.size(); i++) {
+            for (int j = 0; j < contestants.size(); j++) {
                 if (i != j) {
-                    double[] result1 = playGame(players[i], players[j]);
-                    double[] result2 = playGame(players[j], players[i]);
-                    scores[i] += result1[0] + result2[1];
-                    scores[j] += result1[1] + result2[0];
+                    pairings.add(new int[] {i, j});
+                    pairings.add(new int[] {j, i});
+                }
+            }
+        }
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long[] gameSeeds = new long[pairings.size()];
+        for (int g = 0; g < gameSeeds.length; g++) {
+            gameSeeds[g] = seeds.nextLong();
+        }
+        // Each game writes only its own slots, so no locking is needed; Future.get makes them visible here
+        double[][] results = new double[pairings.size()][];
+        String[] reports = new String[pairings.size()];
+        MoveStatistics[] statistics = new MoveStatistics[contestants.size()];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new MoveStatistics();
+        }
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<?>> games = new ArrayList<>();
+            for (int g = 0; g < pairings.size(); g++) {
+                int game = g;
+                if (concurrently) {
+                    int[] pair = pairings.get(game);
+                    StringBuilder report = new StringBuilder();
+                    games.add(playGameAsync(AsyncScrabbleAI.of(contestants.get(pair[0]).get(), pool),
+                            AsyncScrabbleAI.of(contestants.get(pair[1]).get(), pool), new Random(gameSeeds[game]),
+                            report, statistics[pair[0]], statistics[pair[1]]).thenAccept(result -> {
+                                results[game] = result;
+                                reports[game] = report.toString();
+                            }));
+                    continue;
                 }
+                games.add(pool.submit(() -> {
+                    int[] pair = pairings.get(game);
+                    StringBuilder report = new StringBuilder();
+                    results[game] = playGame(contestants.get(pair[0]).get(), contestants.get(pair[1]).get(),
+                            new Random(gameSeeds[game]), report, null, statistics[pair[0]], statistics[pair[1]]);
+                    reports[game] = report.toString();
+                    return null;
+                }));
+            }
+            double[] scores = new double[contestants.size()];
+            for (int g = 0; g < games.size(); g++) {
+                await(games.get(g));
+                StdOut.print(reports[g]);
+                int[] pair = pairings.get(g);
+                scores[pair[0]] += results[g][0];
+                scores[pair[1]] += results[g][1];
+            }
+            long elapsed = System.nanoTime() - start;
+            for (int i = 0; i < contestants.size(); i++) {
+                StdOut.println(name(i) + ": " + scores[i]);
+            }
+            StdOut.println(summary(scores, statistics, games.size(), elapsed));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays the given number of games between the contestants (cycling through the pairings), using the specified
+     * number of worker threads, and writes a LeaveTable built from the leaves kept during them to the named file.
+     *
+     * @param seed Determines the tiles drawn in every game.
+     */
+    public void trainLeaves(int games, int threads, long seed, String filename)
+            throws IllegalMoveException, IOException {
+        Board.warmUpLexicon();
+        StdOut.println("Seed: " + seed);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        LeaveTable.Builder leaves = new LeaveTable.Builder();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<?>> played = new ArrayList<>();
+            for (int g = 0; g < games; g++) {
+                int a = g % contestants.size();
+                int b = (a + 1 + g / contestants.size() % Math.max(1, contestants.size() - 1)) % contestants.size();
+                long gameSeed = seeds.nextLong();
+                played.add(pool.submit(() -> {
+                    // Each game records its own observations, then adds them all at once
+                    LeaveTable.Builder observations = new LeaveTable.Builder();
+                    playGame(contestants.get(a).get(), contestants.get(b).get(), new Random(gameSeed),
+                            new StringBuilder(), observations);
+                    synchronized (leaves) {
+                        leaves.addAll(observations);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> game : played) {
+                await(game);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        LeaveTable table;
+        synchronized (leaves) {
+            table = leaves.build();
+        }
+        table.write(filename);
+        StdOut.println("Wrote " + table.size() + " leaves from " + leaves.size() + " observations to " + filename);
+    }
+
+    /** Waits for game to finish, rethrowing any exception it threw. */
+    private static void await(Future<?> game) throws IllegalMoveException {
+        try {
+            game.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for game", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalMoveException) {
+                throw (IllegalMoveException) e.getCause();
             }
+            throw new IllegalStateException("Game failed", e.getCause());
+        }
+    }
+
+    /**
+     * Returns a one-line JSON summary of a tournament in which the contestants won scores[i] games and had the
+     * statistics[i], and the given number of games took elapsed nanoseconds. Times are in milliseconds.
+     */
+    private String summary(double[] scores, MoveStatistics[] statistics, int games, long elapsed) {
+        double seconds = elapsed / 1e9;
+        long moves = 0;
+        for (MoveStatistics s : statistics) {
+            moves += s.getMoves();
         }
-        for (int i = 0; i < players.length; i++) {
-            StdOut.println(players[i].toString() + ": " + scores[i]);
+        StringBuilder result = new StringBuilder();
+        result.append(String.format(Locale.ROOT, "{\"games\": %d, \"moves\": %d, \"seconds\": %.3f, "
+                + "\"gamesPerSecond\": %.3f, \"movesPerSecond\": %.3f, \"contestants\": [", games, moves, seconds,
+                games / seconds, moves / seconds));
+        for (int i = 0; i < statistics.length; i++) {
+            MoveStatistics s = statistics[i];
+            result.append(i == 0 ? "" : ", ");
+            result.append(String.format(Locale.ROOT, "{\"name\": \"%s\", \"wins\": %.1f, \"moves\": %d, "
+                    + "\"p50Ms\": %.3f, \"p99Ms\": %.3f, \"maxMs\": %.3f, \"legalityChecks\": %d, "
+                    + "\"scoreCalls\": %d, \"generatedPlays\": %d}", name(i), scores[i], s.getMoves(),
+                    s.getPercentile(0.5) / 1e6, s.getPercentile(0.99) / 1e6, s.getMaxTime() / 1e6,
+                    s.getLegalityChecks(), s.getScoreCalls(), s.getGeneratedPlays()));
         }
+        return result.append("]}").toString();
+    }
+
+    /** Returns the name of contestant i, for reporting. */
+    private String name(int i) {
+        return names.get(i);
     }
 
     /**
@@ -42,21 +286,79 @@ public class ScrabbleTournament {
      * {0, 1}, or {0.5, 0.5}.
      */
     public double[] playGame(ScrabbleAI a, ScrabbleAI b) throws IllegalMoveException {
-        StdOut.println(a + " vs " + b + ":");
-        Board board = new Board();
-        a.setGateKeeper(new GateKeeper(board, 0));
-        b.setGateKeeper(new GateKeeper(board, 1));
+        StringBuilder report = new StringBuilder();
+        double[] result = playGame(a, b, new Random(), report);
+        StdOut.print(report);
+        return result;
+    }
+
+    /**
+     * Plays a game between a (going first) and b, drawing tiles using random and appending a description of the game
+     * to report. Returns their tournament scores, either {1, 0} (if a wins), {0, 1}, or {0.5, 0.5}.
+     */
+    public double[] playGame(ScrabbleAI a, ScrabbleAI b, Random random, StringBuilder report)
+            throws IllegalMoveException {
+        return playGame(a, b, random, report, null);
+    }
+
+    /**
+     * Plays a game as playGame(a, b, random, report) does, also recording in leaves (unless it is null) each leave
+     * kept by a play while there were tiles to draw, together with the points its holder scored on their next turn.
+     */
+    public double[] playGame(ScrabbleAI a, ScrabbleAI b, Random random, StringBuilder report,
+                             LeaveTable.Builder leaves) throws IllegalMoveException {
+        return playGame(a, b, random, report, leaves, null, null);
+    }
+
+    /**
+     * Plays a game as playGame(a, b, random, report, leaves) does, also recording a's and b's moves in statisticsA
+     * and statisticsB (unless they are null).
+     */
+    private double[] playGame(ScrabbleAI a, ScrabbleAI b, Random random, StringBuilder report,
+                              LeaveTable.Builder leaves, MoveStatistics statisticsA, MoveStatistics statisticsB)
+            throws IllegalMoveException {
+        String nameA = a.getClass().getSimpleName();
+        String nameB = b.getClass().getSimpleName();
+        report.append(nameA).append(" vs ").append(nameB).append(":\n");
+        Board board = new Board(random);
+        GateKeeper gateKeeperA = new GateKeeper(board, 0, statisticsA);
+        GateKeeper gateKeeperB = new GateKeeper(board, 1, statisticsB);
+        a.setGateKeeper(gateKeeperA);
+        b.setGateKeeper(gateKeeperB);
+        GameEvent event = new GameEvent();
+        event.begin();
+        // For each player, the key of the leave awaiting its next turn's score, or -1
+        int[] pendingLeaves = {-1, -1};
         while (!board.gameIsOver()) {
-            playMove(board, a, 0);
+            playMove(board, a, 0, leaves, pendingLeaves, gateKeeperA);
+            event.moves++;
             if (!board.gameIsOver()) {
-                playMove(board, b, 1);
+                playMove(board, b, 1, leaves, pendingLeaves, gateKeeperB);
+                event.moves++;
             }
         }
+        return finishGame(board, nameA, nameB, report, event);
+    }
+
+    /**
+     * Ends a game that is over on board: commits event (if a flight recording wants it), appends the final position
+     * and scores to report, and returns the players' tournament scores.
+     */
+    private static double[] finishGame(Board board, String nameA, String nameB, StringBuilder report,
+                                       GameEvent event) {
         int s0 = board.getScore(0);
         int s1 = board.getScore(1);
-        StdOut.print(board);
-        StdOut.println("Final score: " + a + " " + s0 + ", b " + s1);
-        StdOut.println();
+        event.end();
+        if (event.shouldCommit()) {
+            event.firstPlayer = nameA;
+            event.secondPlayer = nameB;
+            event.firstScore = s0;
+            event.secondScore = s1;
+            event.commit();
+        }
+        report.append(board);
+        report.append("Final score: ").append(nameA).append(" ").append(s0)
+                .append(", ").append(nameB).append(" ").append(s1).append("\n\n");
         if (s0 > s1) {
             return new double[] {1, 0};
         } else if (s0 < s1) {
@@ -66,12 +368,181 @@ public class ScrabbleTournament {
         return new double[] {0.5, 0.5};
     }
 
+    /**
+     * Starts a game between a (going first) and b, as playGame(a, b, random, report) does, and returns a future for
+     * their tournament scores. The game never blocks a thread: each move is requested from the AI to play, and when
+     * its future completes the move is played (on the thread that completed it) and the next one requested. Many
+     * games can thus be advanced by a few threads, limited only by where the AIs choose their moves. a's and b's
+     * moves are recorded in statisticsA and statisticsB (unless they are null); their times include any time spent
+     * waiting for a thread.
+     */
+    public CompletableFuture<double[]> playGameAsync(AsyncScrabbleAI a, AsyncScrabbleAI b, Random random,
+                                                     StringBuilder report, MoveStatistics statisticsA,
+                                                     MoveStatistics statisticsB) {
+        AsyncGame game = new AsyncGame(a, b, random, report, statisticsA, statisticsB);
+        game.advance();
+        return game.result;
+    }
+
+    /** A game played by playGameAsync. */
+    private class AsyncGame {
+
+        /** The game. */
+        private final Board board;
+
+        /** The players, in turn order. */
+        private final AsyncScrabbleAI[] players;
+
+        /** The players' GateKeepers. */
+        private final GateKeeper[] gateKeepers;
+
+        /** Receives a description of the game. */
+        private final StringBuilder report;
+
+        /** Spans the game. */
+        private final GameEvent event = new GameEvent();
+
+        /** Completed with the tournament scores when the game is over. */
+        private final CompletableFuture<double[]> result = new CompletableFuture<>();
+
+        AsyncGame(AsyncScrabbleAI a, AsyncScrabbleAI b, Random random, StringBuilder report,
+                  MoveStatistics statisticsA, MoveStatistics statisticsB) {
+            this.report = report;
+            report.append(a.getName()).append(" vs ").append(b.getName()).append(":\n");
+            board = new Board(random);
+            players = new AsyncScrabbleAI[] {a, b};
+            gateKeepers = new GateKeeper[] {new GateKeeper(board, 0, statisticsA),
+                    new GateKeeper(board, 1, statisticsB)};
+            a.setGateKeeper(gateKeepers[0]);
+            b.setGateKeeper(gateKeepers[1]);
+            event.begin();
+        }
+
+        /** Requests the next move, to be played when it arrives, or finishes the game if it is over. */
+        void advance() {
+            if (board.gameIsOver()) {
+                result.complete(finishGame(board, players[0].getName(), players[1].getName(), report, event));
+                return;
+            }
+            int player = board.getCurrentPlayer();
+            GateKeeper gateKeeper = gateKeepers[player];
+            ChooseMoveEvent chooseEvent = new ChooseMoveEvent();
+            long examined = gateKeeper.getPlaysExamined();
+            chooseEvent.begin();
+            long start = System.nanoTime();
+            CompletableFuture<ScrabbleMove> chosen;
+            if (moveTimeLimit == SearchBudget.NO_TIME_LIMIT && moveNodeLimit == SearchBudget.NO_NODE_LIMIT) {
+                chosen = players[player].chooseMoveAsync();
+            } else {
+                chosen = players[player].chooseMoveAsync(new SearchBudget(moveTimeLimit, moveNodeLimit));
+            }
+            chosen.whenComplete((move, failure) -> {
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                    return;
+                }
+                if (gateKeeper.getStatistics() != null) {
+                    gateKeeper.getStatistics().recordMove(System.nanoTime() - start);
+                }
+                chooseEvent.end();
+                if (chooseEvent.shouldCommit()) {
+                    chooseEvent.ai = players[player].getName();
+                    chooseEvent.player = player;
+                    chooseEvent.candidates = gateKeeper.getPlaysExamined() - examined;
+                    chooseEvent.bagSize = board.getBagSize();
+                    chooseEvent.commit();
+                }
+                try {
+                    move.play(board, player);
+                    event.moves++;
+                    advance();
+                } catch (IllegalMoveException | RuntimeException e) {
+                    // Nothing else would ever complete the game
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+
+    }
+
     /**
      * Asks player for a move and plays it on board.
      * @param playerNumber Player's place in the game turn order (0 or 1).
      */
     public void playMove(Board board, ScrabbleAI player, int playerNumber) throws IllegalMoveException {
-        player.chooseMove().play(board, playerNumber);
+        chooseMove(player).play(board, playerNumber);
+    }
+
+    /**
+     * Asks player for a move as chooseMove does, recording the time taken in gateKeeper's MoveStatistics (if it has
+     * any) and emitting a ChooseMoveEvent if a flight recording wants one.
+     */
+    private ScrabbleMove timedChooseMove(Board board, ScrabbleAI player, int playerNumber, GateKeeper gateKeeper) {
+        MoveStatistics statistics = gateKeeper.getStatistics();
+        ChooseMoveEvent event = new ChooseMoveEvent();
+        long examined = gateKeeper.getPlaysExamined();
+        event.begin();
+        long start = statistics == null ? 0 : System.nanoTime();
+        ScrabbleMove move = chooseMove(player);
+        if (statistics != null) {
+            statistics.recordMove(System.nanoTime() - start);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.ai = player.getClass().getSimpleName();
+            event.player = playerNumber;
+            event.candidates = gateKeeper.getPlaysExamined() - examined;
+            event.bagSize = board.getBagSize();
+            event.commit();
+        }
+        return move;
+    }
+
+    /** Asks player for a move, within the per-move budget if one has been set. */
+    private ScrabbleMove chooseMove(ScrabbleAI player) {
+        if (moveTimeLimit == SearchBudget.NO_TIME_LIMIT && moveNodeLimit == SearchBudget.NO_NODE_LIMIT) {
+            return player.chooseMove();
+        }
+        return player.chooseMove(new SearchBudget(moveTimeLimit, moveNodeLimit));
+    }
+
+    /**
+     * Asks player, whose GateKeeper is gateKeeper, for a move and plays it on board (see timedChooseMove). If leaves
+     * is not null, also records the score of the move against the leave in pendingLeaves[playerNumber], and replaces
+     * that with the leave kept by this move.
+     */
+    private void playMove(Board board, ScrabbleAI player, int playerNumber, LeaveTable.Builder leaves,
+                          int[] pendingLeaves, GateKeeper gateKeeper) throws IllegalMoveException {
+        if (leaves == null) {
+            timedChooseMove(board, player, playerNumber, gateKeeper).play(board, playerNumber);
+            return;
+        }
+        TileRack hand = board.getHand(playerNumber);
+        int[] counts = new int[TileRack.KINDS];
+        for (int kind = 0; kind < TileRack.KINDS; kind++) {
+            counts[kind] = hand.count(kind);
+        }
+        boolean canDraw = board.getBagSize() > 0;
+        int before = board.getScore(playerNumber);
+        ScrabbleMove move = timedChooseMove(board, player, playerNumber, gateKeeper);
+        move.play(board, playerNumber);
+        if (board.gameIsOver()) {
+            return; // The final score includes the end-of-game adjustments, which are not about the leave
+        }
+        if (pendingLeaves[playerNumber] >= 0) {
+            leaves.add(pendingLeaves[playerNumber], board.getScore(playerNumber) - before);
+        }
+        pendingLeaves[playerNumber] = -1;
+        if (canDraw && move instanceof PlayWord) {
+            String word = ((PlayWord) move).getWord();
+            for (int i = 0; i < word.length(); i++) {
+                int kind = TileRack.kindOf(word.charAt(i));
+                if (kind >= 0) {
+                    counts[kind]--;
+                }
+            }
+            pendingLeaves[playerNumber] = LeaveTable.key(counts);
+        }
     }
 
 }
@@ -0,0 +1,88 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits on the search a ScrabbleAI may do for one move: a deadline, a maximum number of nodes (positions examined),
+ * and a flag another thread can set to cancel the search. Once any limit is reached the budget is exhausted, and the
+ * AI should return the best move it has found so far.
+ *
+ * What counts as a node is up to each AI; the node limit is mostly useful for making searches repeatable. A
+ * SearchBudget may be shared by the threads of a parallel search, and passed on to another ScrabbleAI.
+ */
+public class SearchBudget {
+
+    /** Time limit meaning no deadline. */
+    public static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+
+    /** Node limit meaning no node limit. */
+    public static final long NO_NODE_LIMIT = Long.MAX_VALUE;
+
+    /** Time (from System.nanoTime) at which this budget expires, if timeLimited. */
+    private final long deadline;
+
+    /** True if this budget has a deadline. */
+    private final boolean timeLimited;
+
+    /** Maximum number of nodes. */
+    private final long nodeLimit;
+
+    /** Number of nodes counted so far. */
+    private final AtomicLong nodes = new AtomicLong();
+
+    /** True once cancel has been called. */
+    private volatile boolean cancelled;
+
+    /** @param timeLimit Time allowed from now, in milliseconds, or NO_TIME_LIMIT. */
+    public SearchBudget(long timeLimit) {
+        this(timeLimit, NO_NODE_LIMIT);
+    }
+
+    /**
+     * @param timeLimit Time allowed from now, in milliseconds, or NO_TIME_LIMIT.
+     * @param nodeLimit Number of nodes allowed, or NO_NODE_LIMIT.
+     */
+    public SearchBudget(long timeLimit, long nodeLimit) {
+        timeLimited = timeLimit != NO_TIME_LIMIT;
+        deadline = timeLimited ? System.nanoTime() + timeLimit * 1_000_000 : 0;
+        this.nodeLimit = nodeLimit;
+    }
+
+    /** Returns a budget with no deadline or node limit, which is only exhausted if cancelled. */
+    public static SearchBudget unlimited() {
+        return new SearchBudget(NO_TIME_LIMIT, NO_NODE_LIMIT);
+    }
+
+    /** Cancels the search. Safe to call from any thread. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Returns true if cancel has been called. */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Counts n more nodes as searched. Returns true if the budget is now exhausted. */
+    public boolean addNodes(long n) {
+        nodes.addAndGet(n);
+        return isExhausted();
+    }
+
+    /** Returns the number of nodes counted so far. */
+    public long getNodes() {
+        return nodes.get();
+    }
+
+    /** Returns true if the search has been cancelled, has passed its deadline, or has used up its nodes. */
+    public boolean isExhausted() {
+        return cancelled || nodes.get() >= nodeLimit || (timeLimited && System.nanoTime() - deadline >= 0);
+    }
+
+    /** Returns the time left before the deadline in milliseconds (never negative), or NO_TIME_LIMIT if none. */
+    public long getRemainingTime() {
+        if (!timeLimited) {
+            return NO_TIME_LIMIT;
+        }
+        return Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+    }
+
+}
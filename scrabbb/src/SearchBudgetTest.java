@@ -0,0 +1,35 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchBudgetTest {
+
+    @Test
+    public void unlimitedBudgetIsOnlyExhaustedByCancelling() {
+        SearchBudget budget = SearchBudget.unlimited();
+        assertFalse(budget.addNodes(1_000_000));
+        assertEquals(SearchBudget.NO_TIME_LIMIT, budget.getRemainingTime());
+        budget.cancel();
+        assertTrue(budget.isCancelled());
+        assertTrue(budget.isExhausted());
+    }
+
+    @Test
+    public void exhaustedWhenNodesAreUsedUp() {
+        SearchBudget budget = new SearchBudget(60_000, 10);
+        assertFalse(budget.addNodes(9));
+        assertTrue(budget.addNodes(1));
+        assertEquals(10, budget.getNodes());
+        assertFalse(budget.isCancelled());
+    }
+
+    @Test
+    public void exhaustedAtDeadline() {
+        assertTrue(new SearchBudget(0).isExhausted());
+        assertEquals(0, new SearchBudget(0).getRemainingTime());
+        SearchBudget budget = new SearchBudget(60_000);
+        assertFalse(budget.isExhausted());
+        assertTrue(budget.getRemainingTime() > 50_000);
+    }
+
+}
@@ -0,0 +1,243 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI that chooses among its highest-scoring plays by Monte Carlo simulation. Each rollout deals the opponent a random
+ * hand from the tiles this AI cannot see, then, for every candidate play, makes the play and lets both sides play
+ * greedily (the highest-scoring play, or exchanging everything) for a few more moves. A candidate's equity is the
+ * average change in the score difference over its rollouts; the candidate with the highest equity is played.
+ *
+ * Rollouts run in parallel on a ForkJoinPool. Each worker thread samples its own copies of the position and has its
+ * own MoveGenerator, and workers only share a counter of rollouts started, so throughput grows with the number of
+ * threads. Simulation stops when the number of rollouts is reached or the SearchBudget (by default, the time limit)
+ * is exhausted, whichever comes first; the equities are then estimated from the rollouts completed. Each greedy move
+ * in a rollout counts as one node of the budget.
+ */
+public class Simulator implements ScrabbleAI {
+
+    /** When exchanging, always exchange everything. */
+    private static final boolean[] ALL_TILES = {true, true, true, true, true, true, true};
+
+    /** Number of highest-scoring plays simulated. */
+    private final int candidates;
+
+    /** Number of moves simulated after each candidate play. */
+    private final int plies;
+
+    /** Maximum number of rollouts per move. */
+    private final int rollouts;
+
+    /** Maximum time spent simulating per move, in milliseconds, when chooseMove is not given a SearchBudget. */
+    private final long timeLimit;
+
+    /** Runs the rollouts. */
+    private final ForkJoinPool pool;
+
+    /** Source of seeds for the rollouts. */
+    private final Random random;
+
+    /** The GateKeeper through which this Simulator accesses the Board. */
+    private GateKeeper gateKeeper;
+
+    /** Number of rollouts completed while choosing the most recent move. */
+    private int rolloutsCompleted;
+
+    /** Simulates the 10 highest-scoring plays 2 moves ahead, with up to 1000 rollouts in one second. */
+    public Simulator() {
+        this(10, 2, 1000, 1000, ForkJoinPool.commonPool(), new Random());
+    }
+
+    /**
+     * @param candidates Number of highest-scoring plays simulated.
+     * @param plies Number of moves simulated after each candidate play (typically 2 to 4).
+     * @param rollouts Maximum number of rollouts per move.
+     * @param timeLimit Maximum time spent simulating per move, in milliseconds, when chooseMove is not given a
+     *                  SearchBudget.
+     * @param pool Runs the rollouts; its parallelism determines the number of worker threads.
+     * @param random Source of seeds for the rollouts.
+     */
+    public Simulator(int candidates, int plies, int rollouts, long timeLimit, ForkJoinPool pool, Random random) {
+        this.candidates = candidates;
+        this.plies = plies;
+        this.rollouts = rollouts;
+        this.timeLimit = timeLimit;
+        this.pool = pool;
+        this.random = random;
+    }
+
+    @Override
+    public void setGateKeeper(GateKeeper gateKeeper) {
+        this.gateKeeper = gateKeeper;
+    }
+
+    /** Returns the number of rollouts completed while choosing the most recent move. */
+    public int getRolloutsCompleted() {
+        return rolloutsCompleted;
+    }
+
+    @Override
+    public ScrabbleMove chooseMove() {
+        return chooseMove(new SearchBudget(timeLimit));
+    }
+
+    @Override
+    public ScrabbleMove chooseMove(SearchBudget budget) {
+        ArrayList<ScoredPlay> plays = gateKeeper.generateMoves();
+        rolloutsCompleted = 0;
+        if (plays.isEmpty()) {
+            return new ExchangeTiles(ALL_TILES);
+        }
+        plays.sort(Comparator.comparingInt(ScoredPlay::getScore).reversed());
+        List<ScoredPlay> top = plays.subList(0, Math.min(candidates, plays.size()));
+        if (top.size() == 1) {
+            return top.get(0);
+        }
+        double[] equities = simulate(top, budget);
+        int best = 0;
+        for (int i = 1; i < top.size(); i++) {
+            if (equities[i] > equities[best]) {
+                best = i;
+            }
+        }
+        return top.get(best);
+    }
+
+    /** Returns the equity of each play in plays, estimated by as many rollouts as budget allows. */
+    private double[] simulate(List<ScoredPlay> plays, SearchBudget budget) {
+        long seed = random.nextLong();
+        AtomicInteger started = new AtomicInteger();
+        ArrayList<ForkJoinTask<Rollouts>> workers = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            workers.add(pool.submit(() -> {
+                Rollouts result = new Rollouts(plays, budget);
+                // Rollout r is seeded from seed and r, whichever thread runs it
+                for (int r = started.getAndIncrement(); r < rollouts && !budget.isExhausted();
+                     r = started.getAndIncrement()) {
+                    result.run(new Random(seed + r * 0x9E3779B97F4A7C15L));
+                }
+                return result;
+            }));
+        }
+        long[] totals = new long[plays.size()];
+        for (ForkJoinTask<Rollouts> worker : workers) {
+            Rollouts result = worker.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += result.totals[i];
+            }
+            rolloutsCompleted += result.count;
+        }
+        double[] equities = new double[plays.size()];
+        for (int i = 0; i < equities.length; i++) {
+            // With no rollouts at all, fall back on the plays' scores
+            equities[i] = rolloutsCompleted == 0 ? plays.get(i).getScore() : (double) totals[i] / rolloutsCompleted;
+        }
+        return equities;
+    }
+
+    /** One worker's rollouts, with its own scratch space and running totals. */
+    private class Rollouts implements MoveGenerator.Listener {
+
+        /** The candidate plays. */
+        private final List<ScoredPlay> plays;
+
+        /** Limits the rollouts. */
+        private final SearchBudget budget;
+
+        /** The candidate plays' words, as arrays for Board.makeMove. */
+        private final char[][] words;
+
+        /** For each candidate play, the total change in score difference over the rollouts. */
+        private final long[] totals;
+
+        /** Scratch space for the gains of the candidates in the current rollout. */
+        private final long[] gains;
+
+        /** Number of rollouts completed. */
+        private int count;
+
+        /** Finds the greedy replies. */
+        private final MoveGenerator generator = new MoveGenerator(Board.getLexicon());
+
+        // The best play found so far by generator
+
+        private final char[] bestWord = new char[Board.WIDTH];
+
+        private int bestLength;
+
+        private Location bestLocation;
+
+        private Location bestDirection;
+
+        private int bestScore;
+
+        Rollouts(List<ScoredPlay> plays, SearchBudget budget) {
+            this.plays = plays;
+            this.budget = budget;
+            words = new char[plays.size()][];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = plays.get(i).getWord().toCharArray();
+            }
+            totals = new long[plays.size()];
+            gains = new long[plays.size()];
+        }
+
+        /**
+         * Simulates every candidate play on one sample of the hidden tiles. If budget is exhausted partway through,
+         * the rollout is abandoned and not counted, so every candidate is judged on the same samples.
+         */
+        void run(Random random) {
+            Board board = gateKeeper.sampleBoard(random);
+            int me = board.getCurrentPlayer();
+            int before = board.getScore(me) - board.getScore(1 - me);
+            for (int i = 0; i < words.length; i++) {
+                ScoredPlay play = plays.get(i);
+                board.makeMove(play.getLocation().getRow(), play.getLocation().getColumn(),
+                        Board.directionIndex(play.getDirection()), words[i], words[i].length);
+                for (int ply = 0; ply < plies && !board.gameIsOver(); ply++) {
+                    playGreedily(board);
+                }
+                gains[i] = board.getScore(me) - board.getScore(1 - me) - before;
+                while (board.getMoveDepth() > 0) {
+                    board.unmakeMove();
+                }
+                if (budget.addNodes(plies) && i < words.length - 1) {
+                    return;
+                }
+            }
+            for (int i = 0; i < words.length; i++) {
+                totals[i] += gains[i];
+            }
+            count++;
+        }
+
+        /** Makes the current player's highest-scoring play on board, or exchanges everything if there is none. */
+        private void playGreedily(Board board) {
+            bestScore = -1;
+            generator.generate(board, board.getHand(board.getCurrentPlayer()), this);
+            if (bestScore < 0) {
+                board.makeExchange(ALL_TILES);
+            } else {
+                board.makeMove(bestLocation.getRow(), bestLocation.getColumn(), Board.directionIndex(bestDirection),
+                        bestWord, bestLength);
+            }
+        }
+
+        @Override
+        public void play(char[] word, int length, Location location, Location direction, int score) {
+            if (score > bestScore) {
+                System.arraycopy(word, 0, bestWord, 0, length);
+                bestLength = length;
+                bestLocation = location;
+                bestDirection = direction;
+                bestScore = score;
+            }
+        }
+
+    }
+
+}
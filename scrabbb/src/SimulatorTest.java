@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+
+    @Test
+    public void choosesLegalPlayAfterAllRollouts() throws IllegalMoveException {
+        Board board = new Board(new Random(3));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Simulator simulator = new Simulator(5, 2, 20, 60_000, pool, new Random(0));
+            simulator.setGateKeeper(new GateKeeper(board, 0));
+            ScrabbleMove move = simulator.chooseMove();
+            assertEquals(20, simulator.getRolloutsCompleted());
+            assertNotNull(move.play(board, 0));
+            assertEquals(1, board.getCurrentPlayer());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void withoutRolloutsPlaysHighestScore() {
+        Board board = new Board(new Random(4));
+        GateKeeper gateKeeper = new GateKeeper(board, 0);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Simulator simulator = new Simulator(5, 2, 0, 60_000, pool, new Random(0));
+            simulator.setGateKeeper(gateKeeper);
+            ScoredPlay move = (ScoredPlay) simulator.chooseMove();
+            ArrayList<ScoredPlay> plays = gateKeeper.generateMoves();
+            for (ScoredPlay play : plays) {
+                assertTrue(play.getScore() <= move.getScore());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void stopsWhenNodeLimitIsReached() throws IllegalMoveException {
+        Board board = new Board(new Random(3));
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            Simulator simulator = new Simulator(5, 2, 1000, 60_000, pool, new Random(0));
+            simulator.setGateKeeper(new GateKeeper(board, 0));
+            // Each rollout of 5 candidates 2 moves ahead uses 10 nodes
+            SearchBudget budget = new SearchBudget(SearchBudget.NO_TIME_LIMIT, 30);
+            ScrabbleMove move = simulator.chooseMove(budget);
+            assertEquals(3, simulator.getRolloutsCompleted());
+            assertTrue(budget.isExhausted());
+            assertNotNull(move.play(board, 0));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+}
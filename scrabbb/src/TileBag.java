@@ -0,0 +1,111 @@
+import java.util.Random;
+
+/**
+ * The bag of tiles not yet drawn. Tiles come out in random order: draw takes a tile from a random position and moves
+ * the last tile into its place, so neither drawing nor returning tiles requires reshuffling the bag.
+ */
+public class TileBag {
+
+    /** The full set of tiles at the start of a game. */
+    public static final String FULL_SET =
+            "aaaaaaaaabbccddddeeeeeeeeeeeeffggghhiiiiiiiiijkllllmmnnnnnnooooooooppqrrrrrrssssttttttuuuuvvwwxyyz__";
+
+    /** Tiles in the bag, in tiles[0], ..., tiles[size - 1], in no particular order. */
+    private final char[] tiles;
+
+    /** Number of tiles in the bag. */
+    private int size;
+
+    /** Number of each kind of tile, indexed as by TileRack.kindOf. */
+    private final int[] counts = new int[TileRack.KINDS];
+
+    /** Chooses which tile to draw next. */
+    private final Random random;
+
+    /** Creates a bag holding FULL_SET. */
+    public TileBag(Random random) {
+        this.random = random;
+        tiles = new char[FULL_SET.length()];
+        for (int i = 0; i < FULL_SET.length(); i++) {
+            add(FULL_SET.charAt(i));
+        }
+    }
+
+    /** Creates a copy of original that draws its tiles using random. */
+    public TileBag(TileBag original, Random random) {
+        this.random = random;
+        tiles = original.tiles.clone();
+        size = original.size;
+        System.arraycopy(original.counts, 0, counts, 0, counts.length);
+    }
+
+    /** Returns the number of tiles in the bag. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns true if the bag is empty. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Returns the number of tiles of the kind with the given index (see TileRack.kindOf) in the bag. */
+    public int count(int kind) {
+        return counts[kind];
+    }
+
+    /** Returns a tile ('a' through 'z', or '_') to the bag. */
+    public void add(char tile) {
+        tiles[size++] = tile;
+        counts[TileRack.kindOf(tile)]++;
+    }
+
+    /** Removes and returns a random tile. Assumes the bag is not empty. */
+    public char draw() {
+        return remove(randomPosition());
+    }
+
+    /** Returns a random position (0 through size() - 1) from which to remove a tile. */
+    public int randomPosition() {
+        return random.nextInt(size);
+    }
+
+    /**
+     * Removes and returns the tile at position, moving the last tile into its place.
+     *
+     * @see #restore(char, int)
+     */
+    public char remove(int position) {
+        char result = tiles[position];
+        tiles[position] = tiles[--size];
+        counts[TileRack.kindOf(result)]--;
+        return result;
+    }
+
+    /** Undoes remove(position), which returned tile, putting the bag back exactly as it was. */
+    public void restore(char tile, int position) {
+        tiles[size++] = tiles[position];
+        tiles[position] = tile;
+        counts[TileRack.kindOf(tile)]++;
+    }
+
+    /** Removes the tile most recently added by add. */
+    public void removeLast() {
+        counts[TileRack.kindOf(tiles[--size])]--;
+    }
+
+    /** Moves up to n tiles from the bag into rack. */
+    public void deal(TileRack rack, int n) {
+        for (int i = 0; i < n && size > 0; i++) {
+            rack.add(draw());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TileBag{" +
+                "tiles=" + new String(tiles, 0, size) +
+                '}';
+    }
+
+}
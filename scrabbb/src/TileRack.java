@@ -0,0 +1,193 @@
+import java.util.AbstractList;
+import java.util.Collection;
+
+/**
+ * A player's hand: an ordered list of tiles ('a' through 'z', or '_' for a blank), together with the number of each
+ * kind of tile. The counts make it cheap to ask whether the hand holds the tiles needed for a play. The order is
+ * kept because the GUI and ExchangeTiles refer to tiles by position.
+ *
+ * As a List, a TileRack can be passed anywhere an unmodifiable or modifiable List of Characters is expected.
+ */
+public class TileRack extends AbstractList<Character> {
+
+    /** Index of the blank in count arrays; indices 0 through 25 are the letters 'a' through 'z'. */
+    public static final int BLANK = 26;
+
+    /** Number of kinds of tile. */
+    public static final int KINDS = 27;
+
+    /** Tiles in hand order, in tiles[0], ..., tiles[size - 1]. */
+    private char[] tiles;
+
+    /** Number of tiles in this TileRack. */
+    private int size;
+
+    /** Number of each kind of tile, indexed as by kindOf. */
+    private final int[] counts = new int[KINDS];
+
+    /** Creates an empty TileRack. */
+    public TileRack() {
+        tiles = new char[7];
+    }
+
+    /** Creates a TileRack holding the tiles in hand, in the same order. */
+    public TileRack(Collection<Character> hand) {
+        this();
+        addAll(hand);
+    }
+
+    /**
+     * Returns the index in count arrays of the tile needed to play c: 0 through 25 for a lower-case letter, BLANK for
+     * a blank ('_') or an upper-case letter (a blank played as that letter), or -1 for anything else (such as the
+     * space marking a tile already on the board).
+     */
+    public static int kindOf(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c == '_' || (c >= 'A' && c <= 'Z')) {
+            return BLANK;
+        }
+        return -1;
+    }
+
+    /** Returns the tile ('a' through 'z', or '_') of the given kind (see kindOf). */
+    public static char tileAt(int kind) {
+        return kind == BLANK ? '_' : (char) ('a' + kind);
+    }
+
+    @Override
+    public Character get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return tiles[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, Character tile) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int kind = kindOf(tile);
+        if (kind < 0 || Character.isUpperCase(tile)) {
+            throw new IllegalArgumentException("Not a tile: '" + tile + "'");
+        }
+        if (size == tiles.length) {
+            char[] larger = new char[size * 2];
+            System.arraycopy(tiles, 0, larger, 0, size);
+            tiles = larger;
+        }
+        System.arraycopy(tiles, index, tiles, index + 1, size - index);
+        tiles[index] = tile;
+        size++;
+        counts[kind]++;
+        modCount++;
+    }
+
+    @Override
+    public Character remove(int index) {
+        char result = get(index);
+        System.arraycopy(tiles, index + 1, tiles, index, size - index - 1);
+        size--;
+        counts[kindOf(result)]--;
+        modCount++;
+        return result;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Character)) {
+            return false;
+        }
+        char tile = (Character) o;
+        if (!contains(tile)) {
+            return false;
+        }
+        remove(positionOf(tile));
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Character)) {
+            return false;
+        }
+        char tile = (Character) o;
+        int kind = kindOf(tile);
+        return kind >= 0 && !Character.isUpperCase(tile) && counts[kind] > 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        for (int i = 0; i < KINDS; i++) {
+            counts[i] = 0;
+        }
+        modCount++;
+    }
+
+    /** Returns the position of the first copy of tile in this TileRack, or -1 if there is none. */
+    public int positionOf(char tile) {
+        for (int i = 0; i < size; i++) {
+            if (tiles[i] == tile) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the number of tiles of the kind with the given index (see kindOf) in this TileRack. */
+    public int count(int kind) {
+        return counts[kind];
+    }
+
+    /**
+     * Returns true if this TileRack holds the tiles needed to play word[0], ..., word[length - 1]. Spaces (tiles
+     * already on the board) need no tile; upper-case letters need blanks.
+     */
+    public boolean canCover(char[] word, int length) {
+        // Subtract the tiles needed from counts, then put them back; this avoids allocating a scratch array, but
+        // means canCover must not run concurrently with other uses of this TileRack
+        boolean result = true;
+        int i = 0;
+        for (; i < length; i++) {
+            int kind = kindOf(word[i]);
+            if (kind >= 0 && --counts[kind] < 0) {
+                result = false;
+                i++;
+                break;
+            }
+        }
+        for (int j = 0; j < i; j++) {
+            int kind = kindOf(word[j]);
+            if (kind >= 0) {
+                counts[kind]++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the tiles needed to play word (see canCover) from this TileRack, earliest first, and returns them in a
+     * new String. Assumes they are present.
+     */
+    public String removeTiles(String word) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < word.length(); i++) {
+            int kind = kindOf(word.charAt(i));
+            if (kind >= 0) {
+                char tile = tileAt(kind);
+                remove((Character) tile);
+                result.append(tile);
+            }
+        }
+        return result.toString();
+    }
+
+}
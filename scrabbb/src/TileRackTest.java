@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TileRackTest {
+
+    private TileRack rack;
+
+    @BeforeEach
+    public void setUp() {
+        rack = new TileRack();
+        for (char c : "ca__bda".toCharArray()) {
+            rack.add(c);
+        }
+    }
+
+    @Test
+    public void keepsTilesInOrderAndCountsThem() {
+        assertEquals("[c, a, _, _, b, d, a]", rack.toString());
+        assertEquals(2, rack.count(TileRack.kindOf('a')));
+        assertEquals(2, rack.count(TileRack.BLANK));
+        assertEquals(0, rack.count(TileRack.kindOf('z')));
+    }
+
+    @Test
+    public void coversWordsUsingCounts() {
+        assertTrue(rack.canCover("cab".toCharArray(), 3));
+        assertTrue(rack.canCover(" aDa".toCharArray(), 4));
+        assertFalse(rack.canCover("aaa".toCharArray(), 3));
+        assertFalse(rack.canCover("XYZ".toCharArray(), 3));
+        // Failed checks leave the counts intact
+        assertEquals(2, rack.count(TileRack.kindOf('a')));
+        assertEquals(2, rack.count(TileRack.BLANK));
+    }
+
+    @Test
+    public void removesTilesNeededForWord() {
+        assertEquals("_a", rack.removeTiles("Ba "));
+        assertEquals("[c, _, b, d, a]", rack.toString());
+        assertEquals(1, rack.count(TileRack.BLANK));
+    }
+
+    @Test
+    public void bagDealsEveryTileExactlyOnce() {
+        TileBag bag = new TileBag(new Random(1));
+        int[] counts = new int[TileRack.KINDS];
+        while (!bag.isEmpty()) {
+            TileRack hand = new TileRack();
+            bag.deal(hand, 7);
+            for (char c : hand) {
+                counts[TileRack.kindOf(c)]++;
+            }
+        }
+        for (char c : TileBag.FULL_SET.toCharArray()) {
+            counts[TileRack.kindOf(c)]--;
+        }
+        assertArrayEquals(new int[TileRack.KINDS], counts);
+    }
+
+}